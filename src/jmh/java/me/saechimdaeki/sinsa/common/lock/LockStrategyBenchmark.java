@@ -0,0 +1,114 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import me.saechimdaeki.sinsa.product.CatalogFixture;
+import me.saechimdaeki.sinsa.product.CatalogFixture.Distribution;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ReentrantReadWriteLock과 StampedLock 낙관적 읽기의 처리량 비교.
+// 읽기는 낙관적 읽기를 사용하는 getBrand로 측정한다. 나머지 조회는 두 전략 모두 읽기 락을 잡는다.
+// catalog*는 키가 없는 인덱스 조회(getLowestPricedProducts)의 읽기 락 비용을 같은 방식으로 측정한다.
+// 읽기만 하는 경우(readOnly)와 쓰기 스레드 하나가 섞인 경우(readWrite)를 읽기 스레드 1~64개로 측정한다.
+// ./gradlew jmh -PjmhMain=me.saechimdaeki.sinsa.common.lock.LockStrategyBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockStrategyBenchmark {
+
+    private static final int[] READER_THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    private static final int STRIPES = 16;
+
+    // 읽기만 하는 벤치마크와 쓰기가 섞인 그룹의 쌍
+    private static final String[][] BENCHMARKS = {{"readOnly", "readWrite"}, {"catalogReadOnly", "catalogReadWrite"}};
+
+    // 쓰기 사이에 CPU를 소모하여 쓰기 비율을 현실적인 수준으로 낮춘다.
+    private static final long WRITER_BACKOFF_TOKENS = 1_000L;
+
+    @Param({"reentrant", "stamped"})
+    private String strategy;
+
+    private ProductRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final LockStrategy lockStrategy = "stamped".equals(strategy)
+                ? new StampedLockStrategy()
+                : new ReentrantLockStrategy(STRIPES);
+        repository = CatalogFixture.lockedRepository(lockStrategy);
+        CatalogFixture.seed(repository, 9, Distribution.FULL);
+    }
+
+    @Benchmark
+    public Brand readOnly() {
+        return repository.getBrand("A");
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Brand reader() {
+        return repository.getBrand("A");
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public Product writer() {
+        Blackhole.consumeCPU(WRITER_BACKOFF_TOKENS);
+        final long price = ThreadLocalRandom.current().nextLong(1_000L, 2_000L);
+        return repository.updateProduct("A", new Product("A", Category.HAT, price));
+    }
+
+    @Benchmark
+    public List<Product> catalogReadOnly() {
+        return repository.getLowestPricedProducts();
+    }
+
+    @Benchmark
+    @Group("catalogReadWrite")
+    @GroupThreads(1)
+    public List<Product> catalogReader() {
+        return repository.getLowestPricedProducts();
+    }
+
+    @Benchmark
+    @Group("catalogReadWrite")
+    @GroupThreads(1)
+    public Product catalogWriter() {
+        return writer();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int readers : READER_THREADS) {
+            for (String[] benchmark : BENCHMARKS) {
+                final Options readOnly = new OptionsBuilder()
+                        .include(LockStrategyBenchmark.class.getName() + "." + benchmark[0] + "$")
+                        .threads(readers)
+                        .build();
+                new Runner(readOnly).run();
+
+                final Options readWrite = new OptionsBuilder()
+                        .include(LockStrategyBenchmark.class.getName() + "." + benchmark[1] + "$")
+                        .threadGroups(readers, 1)
+                        .build();
+                new Runner(readWrite).run();
+            }
+        }
+    }
+}
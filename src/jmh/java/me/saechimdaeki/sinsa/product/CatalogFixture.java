@@ -0,0 +1,92 @@
+package me.saechimdaeki.sinsa.product;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.saechimdaeki.sinsa.common.config.LockAspect;
+import me.saechimdaeki.sinsa.common.lock.LockMetrics;
+import me.saechimdaeki.sinsa.common.lock.LockStrategy;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.repository.InMemoryProductRepositoryImpl;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// 벤치마크용 저장소와 카탈로그 데이터를 만든다.
+// 저장소는 스프링 컨텍스트 없이 LockAspect를 적용한 프록시로 만들어 실제 요청과 같은 락 경로를 거친다.
+public final class CatalogFixture {
+
+    public static final long MIN_PRICE = 1_000L;
+    public static final long MAX_PRICE = 100_000L;
+
+    // 동률이 많은 분포에서 카테고리별로 사용할 서로 다른 가격 수
+    private static final int TIE_PRICE_COUNT = 8;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private static final long SEED = 20241017L;
+
+    private CatalogFixture() {
+    }
+
+    public enum Distribution {
+        // 모든 브랜드가 8개 카테고리 상품을 모두 가진다.
+        FULL,
+        // 홀수 번째 브랜드는 일부 카테고리 상품만 가진다.
+        PARTIAL,
+        // 가격 종류가 적어 최저가, 최고가 브랜드가 대량으로 동률이 된다.
+        TIES
+    }
+
+    public static ProductRepository lockedRepository(LockStrategy lockStrategy) {
+        return lockedRepository(lockStrategy, new SimpleMeterRegistry());
+    }
+
+    public static ProductRepository lockedRepository(LockStrategy lockStrategy, MeterRegistry meterRegistry) {
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new InMemoryProductRepositoryImpl());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new LockAspect(lockStrategy, new LockMetrics(meterRegistry)));
+        return proxyFactory.getProxy();
+    }
+
+    public static String brandName(int index) {
+        return "brand-" + index;
+    }
+
+    // 브랜드 수가 9개이고 FULL 분포면 과제의 초기 데이터를 그대로 사용한다.
+    public static void seed(ProductRepository repository, int brandCount, Distribution distribution) {
+        if (brandCount == 9 && distribution == Distribution.FULL) {
+            ((InMemoryProductRepositoryImpl) repository).initData();
+            return;
+        }
+        final SplittableRandom random = new SplittableRandom(SEED);
+        for (int index = 0; index < brandCount; index++) {
+            repository.addBrand(brand(index, distribution, random));
+        }
+    }
+
+    public static long randomPrice(SplittableRandom random, Distribution distribution) {
+        if (distribution == Distribution.TIES) {
+            return MIN_PRICE * (1 + random.nextInt(TIE_PRICE_COUNT));
+        }
+        return random.nextLong(MIN_PRICE, MAX_PRICE);
+    }
+
+    private static Brand brand(int index, Distribution distribution, SplittableRandom random) {
+        final String brandName = brandName(index);
+        final int mask = distribution == Distribution.PARTIAL && index % 2 == 1
+                ? 1 + random.nextInt(Category.ALL_CATEGORIES_MASK - 1)
+                : Category.ALL_CATEGORIES_MASK;
+        final List<Product> products = new ArrayList<>(Integer.bitCount(mask));
+        for (Category category : CATEGORIES) {
+            if ((mask & category.mask()) != 0) {
+                products.add(new Product(brandName, category, randomPrice(random, distribution)));
+            }
+        }
+        return new Brand(brandName, products);
+    }
+}
@@ -0,0 +1,88 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import me.saechimdaeki.sinsa.common.lock.ReentrantLockStrategy;
+import me.saechimdaeki.sinsa.product.CatalogFixture;
+import me.saechimdaeki.sinsa.product.CatalogFixture.Distribution;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.repository.CatalogImage;
+import me.saechimdaeki.sinsa.product.repository.InMemoryProductRepositoryImpl;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// 시작할 때 카탈로그를 복원하는 시간 비교. 바이너리 스냅샷과 저널 전체 재적용을 브랜드 100k, 1M개로 측정한다.
+// readSnapshot은 파일 읽기와 디코딩만, loadSnapshot은 인덱스 구성까지 포함한다.
+// ./gradlew jmh -PjmhArgs="CatalogStartupBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CatalogStartupBenchmark {
+
+    private static final int STRIPES = 16;
+
+    @Param({"100000", "1000000"})
+    private int brandCount;
+
+    private Path directory;
+    private Path snapshotPath;
+    private Path journalPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sinsa-startup");
+        snapshotPath = directory.resolve("catalog.snapshot");
+        journalPath = directory.resolve("catalog.journal");
+
+        final ProductRepository repository = CatalogFixture.lockedRepository(new ReentrantLockStrategy(STRIPES));
+        CatalogFixture.seed(repository, brandCount, Distribution.PARTIAL);
+        CatalogImageFile.write(snapshotPath, repository.exportImage(() -> 0L));
+
+        final ProductJournal journal = new ProductJournal(journalPath, FsyncPolicy.OS, 0);
+        journal.open();
+        for (Brand brand : repository.getAllBrands()) {
+            journal.append(new JournalEntry.AddBrand(brand.getBrandName(), brand.getProducts()));
+        }
+        journal.close();
+        System.out.printf("%nsnapshot: %d bytes, journal: %d bytes%n", Files.size(snapshotPath), Files.size(journalPath));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public CatalogImage readSnapshot() throws IOException {
+        return CatalogImageFile.read(snapshotPath);
+    }
+
+    @Benchmark
+    public ProductRepository loadSnapshot() throws IOException {
+        final InMemoryProductRepositoryImpl repository = new InMemoryProductRepositoryImpl();
+        repository.importImage(CatalogImageFile.read(snapshotPath));
+        return repository;
+    }
+
+    @Benchmark
+    public ProductRepository replayJournal() throws IOException {
+        final InMemoryProductRepositoryImpl repository = new InMemoryProductRepositoryImpl();
+        final ProductJournal journal = new ProductJournal(journalPath, FsyncPolicy.OS, 0);
+        journal.open();
+        journal.replay(entry -> entry.applyTo(repository));
+        journal.close();
+        return repository;
+    }
+}
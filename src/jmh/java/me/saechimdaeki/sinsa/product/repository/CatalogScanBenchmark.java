@@ -0,0 +1,54 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.CatalogFixture;
+import me.saechimdaeki.sinsa.product.CatalogFixture.Distribution;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// snapshot 프로필에서 쓰기마다 실행되는 전체 순회(카테고리별 최저가, 최고가와 최저 총액 브랜드)의 순차, 병렬 비교.
+// 브랜드 수별 두 방식의 교차 지점으로 sinsa.parallel-scan.threshold 기본값을 정한다.
+// ./gradlew jmh -PjmhArgs="CatalogScanBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CatalogScanBenchmark {
+
+    @Param({"1000", "10000", "50000", "100000", "1000000"})
+    private int brandCount;
+
+    @Param({"FULL", "TIES"})
+    private Distribution distribution;
+
+    @Param({"sequential", "parallel"})
+    private String mode;
+
+    private List<Brand> brands;
+
+    private CatalogScanner scanner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final InMemoryProductRepositoryImpl repository = new InMemoryProductRepositoryImpl();
+        CatalogFixture.seed(repository, brandCount, distribution);
+        brands = repository.getAllBrands();
+        scanner = "parallel".equals(mode)
+                ? CatalogScanner.parallel(Runtime.getRuntime().availableProcessors(), 0)
+                : CatalogScanner.SEQUENTIAL;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scanner.close();
+    }
+
+    @Benchmark
+    public CatalogScanner.Aggregate scan() {
+        return scanner.scan(brands);
+    }
+}
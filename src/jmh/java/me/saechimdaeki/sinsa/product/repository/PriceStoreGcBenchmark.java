@@ -0,0 +1,93 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.CatalogFixture;
+import me.saechimdaeki.sinsa.product.CatalogFixture.Distribution;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 가격 행을 힙(long[] 페이지)에 두는 기본 저장소와 direct ByteBuffer에 두는 offheap 저장소의 힙 사용량, GC 정지 시간 비교.
+// trial을 시작할 때 카탈로그를 채우고 full GC 후의 힙, direct 메모리 사용량을 출력하며, trial이 끝나면 GC 횟수와 누적 정지 시간을 출력한다.
+// fullGc는 카탈로그가 살아 있는 상태에서 System.gc() 한 번의 정지 시간을, updatePrice는 가격 갱신 처리량을 잰다.
+// 브랜드 이름, 이름 -> slot 맵, 가격 인덱스는 두 저장소 모두 힙에 있으므로 차이는 가격 행(브랜드당 72바이트)만큼이다.
+// ./gradlew jmh -PjmhArgs="PriceStoreGcBenchmark -prof gc"
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "-XX:MaxDirectMemorySize=4g"})
+public class PriceStoreGcBenchmark {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Param({"heap", "offheap"})
+    private String store;
+
+    @Param({"1000000", "5000000"})
+    private int brandCount;
+
+    private ProductRepository repository;
+
+    private long collectionsAtStart;
+
+    private long collectionMillisAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = "offheap".equals(store) ? new OffHeapProductRepositoryImpl() : new InMemoryProductRepositoryImpl();
+        CatalogFixture.seed(repository, brandCount, Distribution.FULL);
+        System.gc();
+        final long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        final long directUsed = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+        System.out.printf("%n[memory] store=%s brands=%d heap=%dMB direct=%dMB%n",
+                store, brandCount, heapUsed >> 20, directUsed >> 20);
+        collectionsAtStart = collections();
+        collectionMillisAtStart = collectionMillis();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[gc] store=%s brands=%d collections=%d pause=%dms%n", store, brandCount,
+                collections() - collectionsAtStart, collectionMillis() - collectionMillisAtStart);
+        repository = null;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void fullGc() {
+        System.gc();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Product updatePrice() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final String brandName = CatalogFixture.brandName(random.nextInt(brandCount));
+        return repository.updateProduct(brandName, new Product(brandName,
+                CATEGORIES[random.nextInt(CATEGORIES.length)],
+                random.nextLong(CatalogFixture.MIN_PRICE, CatalogFixture.MAX_PRICE)));
+    }
+
+    private static long collections() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static long collectionMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+}
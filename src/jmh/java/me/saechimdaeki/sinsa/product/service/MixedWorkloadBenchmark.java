@@ -0,0 +1,141 @@
+package me.saechimdaeki.sinsa.product.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.saechimdaeki.sinsa.common.lock.LockMetrics;
+import me.saechimdaeki.sinsa.common.lock.LockStrategy;
+import me.saechimdaeki.sinsa.common.lock.ReentrantLockStrategy;
+import me.saechimdaeki.sinsa.common.lock.StampedLockStrategy;
+import me.saechimdaeki.sinsa.product.CatalogFixture;
+import me.saechimdaeki.sinsa.product.CatalogFixture.Distribution;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.dto.ProductRequest;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+// ProductService에 읽기, 쓰기를 섞은 요청을 보내며 스레드 수에 따른 처리량과 지연 시간 분포를 측정한다.
+// 읽기는 조회 3종, 쓰기는 createProduct/updateProduct/deleteProduct/deleteBrand에 고르게 나눈다.
+// SampleTime 모드에서 p0.50/p0.99/p0.999가 출력되고, trial이 끝나면 LockAspect의 재시도, 시간 초과, 낙관적 읽기 무효화 횟수를 출력한다.
+// ./gradlew jmh -PjmhMain=me.saechimdaeki.sinsa.product.service.MixedWorkloadBenchmark
+// ./gradlew jmh -PjmhArgs="MixedWorkloadBenchmark -t 8 -p readPercent=90"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MixedWorkloadBenchmark {
+
+    private static final int STRIPES = 16;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Param({"reentrant", "stamped"})
+    private String strategy;
+
+    // 전체 요청 중 읽기 비율(%)
+    @Param({"50", "90", "99"})
+    private int readPercent;
+
+    @Param({"1000"})
+    private int brandCount;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final LockStrategy lockStrategy = "stamped".equals(strategy)
+                ? new StampedLockStrategy()
+                : new ReentrantLockStrategy(STRIPES);
+        meterRegistry = new SimpleMeterRegistry();
+        final ProductRepository repository = CatalogFixture.lockedRepository(lockStrategy, meterRegistry);
+        CatalogFixture.seed(repository, brandCount, Distribution.FULL);
+        productService = new ProductService(repository, new QueryResultCache(meterRegistry, true));
+    }
+
+    // 낙관적 읽기 무효화는 sinsa.lock.invalidations로 따로 세므로 timeouts에는 읽기, 쓰기 락의 실패만 포함된다.
+    @TearDown(Level.Trial)
+    public void printLockCounters() {
+        System.out.printf("%n[lock] strategy=%s readPercent=%d retries=%.0f timeouts=%.0f invalidations=%.0f%n",
+                strategy, readPercent, count(LockMetrics.RETRIES), count(LockMetrics.FAILURES),
+                count(LockMetrics.INVALIDATIONS));
+    }
+
+    @Benchmark
+    public Object mixed() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            if (random.nextInt(100) < readPercent) {
+                return read(random.nextInt(3));
+            }
+            return write(random.nextInt(4), random);
+        } catch (ProductException e) {
+            // 삭제된 브랜드, 상품에 대한 요청은 정상적인 실패로 보고 그대로 측정한다.
+            // 락 획득 실패(DATA_READ_ERROR/DATA_SAVE_ERROR)는 LockMetrics에 따로 집계된다.
+            return e.getErrorCode();
+        }
+    }
+
+    private Object read(int operation) {
+        return switch (operation) {
+            case 0 -> productService.getLowestPricedProductsByCategory();
+            case 1 -> productService.getBrandWithLowestTotalPrice();
+            default -> productService.getCategoryPriceInfo(CATEGORIES[ThreadLocalRandom.current().nextInt(CATEGORIES.length)].name());
+        };
+    }
+
+    private Object write(int operation, ThreadLocalRandom random) {
+        final String brandName = CatalogFixture.brandName(random.nextInt(brandCount));
+        final String categoryName = CATEGORIES[random.nextInt(CATEGORIES.length)].name();
+        final long price = random.nextLong(CatalogFixture.MIN_PRICE, CatalogFixture.MAX_PRICE);
+        switch (operation) {
+            case 0:
+                return productService.createProduct(new ProductRequest(brandName, categoryName, price));
+            case 1:
+                return productService.updateProduct(brandName, new ProductRequest(brandName, categoryName, price));
+            case 2:
+                productService.deleteProduct(brandName, categoryName);
+                return brandName;
+            default:
+                productService.deleteBrand(brandName);
+                return brandName;
+        }
+    }
+
+    private double count(String name) {
+        return meterRegistry.find(name).counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    // 스레드 수를 1부터 코어 수까지 두 배씩 늘려가며 측정한다.
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+            final Options options = new OptionsBuilder()
+                    .include(MixedWorkloadBenchmark.class.getName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    private static List<Integer> threadCounts(int cores) {
+        final List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(cores);
+        return counts;
+    }
+}
@@ -0,0 +1,79 @@
+package me.saechimdaeki.sinsa.product.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.saechimdaeki.sinsa.common.lock.ReentrantLockStrategy;
+import me.saechimdaeki.sinsa.product.CatalogFixture;
+import me.saechimdaeki.sinsa.product.CatalogFixture.Distribution;
+import me.saechimdaeki.sinsa.product.dto.LowestBrandResponse;
+import me.saechimdaeki.sinsa.product.dto.LowestCategoryResponse;
+import me.saechimdaeki.sinsa.product.dto.PriceByCategoryResponse;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// ProductService 조회 3종을 카탈로그 크기, 가격 분포별로 측정한다.
+// 브랜드 1M개는 힙을 많이 사용하므로 -Xmx4g로 fork한다.
+// ./gradlew jmh -PjmhMain=me.saechimdaeki.sinsa.product.service.ProductQueryBenchmark
+// ./gradlew jmh -PjmhArgs="ProductQueryBenchmark -p brandCount=9,1000 -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProductQueryBenchmark {
+
+    private static final int STRIPES = 16;
+
+    @Param({"9", "1000", "100000", "1000000"})
+    private int brandCount;
+
+    @Param({"FULL", "PARTIAL", "TIES"})
+    private Distribution distribution;
+
+    @Param({"top"})
+    private String categoryName;
+
+    // false면 QueryResultCache를 끄고 매번 저장소에서 다시 계산한다.
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private ProductService productService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ProductRepository repository = CatalogFixture.lockedRepository(new ReentrantLockStrategy(STRIPES));
+        CatalogFixture.seed(repository, brandCount, distribution);
+        productService = new ProductService(repository, new QueryResultCache(new SimpleMeterRegistry(), cached));
+    }
+
+    @Benchmark
+    public LowestCategoryResponse lowestPricedProductsByCategory() {
+        return productService.getLowestPricedProductsByCategory();
+    }
+
+    @Benchmark
+    public LowestBrandResponse brandWithLowestTotalPrice() {
+        return productService.getBrandWithLowestTotalPrice();
+    }
+
+    @Benchmark
+    public PriceByCategoryResponse categoryPriceInfo() {
+        return productService.getCategoryPriceInfo(categoryName);
+    }
+
+    // 처리량, 평균 시간과 함께 GC 프로파일러로 연산당 할당량(gc.alloc.rate.norm)을 출력한다.
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(ProductQueryBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
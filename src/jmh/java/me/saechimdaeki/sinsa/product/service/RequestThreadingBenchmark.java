@@ -0,0 +1,137 @@
+package me.saechimdaeki.sinsa.product.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.saechimdaeki.sinsa.common.lock.ReentrantLockStrategy;
+import me.saechimdaeki.sinsa.product.CatalogFixture;
+import me.saechimdaeki.sinsa.product.CatalogFixture.Distribution;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.dto.ProductRequest;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+// 요청 burst를 톰캣 기본 작업 스레드 풀(플랫폼 스레드 200개)과 요청마다 가상 스레드로 실행하여 비교한다.
+// burst의 1%는 상품 피드 가져오기처럼 카탈로그 전체 쓰기 락을 오래 잡고, 9%는 브랜드 단위 쓰기,
+// 나머지는 조건부 조회(버전 확인 후 캐시된 최저가 조회)이다.
+// 전체 쓰기 락을 기다리는 요청이 플랫폼 스레드를 모두 차지하면, 락과 무관한 조회도 큐에서 기다리게 된다.
+// burst 하나를 처리하는 평균 시간과 함께, trial이 끝나면 조회 요청의 대기 포함 지연 시간 p50/p99를 출력한다.
+// ./gradlew jmh -PjmhMain=me.saechimdaeki.sinsa.product.service.RequestThreadingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestThreadingBenchmark {
+
+    // server.tomcat.threads.max 기본값
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    private static final int STRIPES = 16;
+
+    private static final int BRAND_COUNT = 1000;
+
+    private static final int IMPORT_ROWS = 5000;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    // burst 하나에서 동시에 들어오는 요청 수
+    @Param({"1000", "10000"})
+    private int concurrency;
+
+    private ExecutorService executor;
+
+    private ProductRepository repository;
+
+    private ProductService productService;
+
+    private List<Product> importRows;
+
+    private final List<long[]> readPercentiles = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        executor = "virtual".equals(threading)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        repository = CatalogFixture.lockedRepository(new ReentrantLockStrategy(STRIPES), meterRegistry);
+        CatalogFixture.seed(repository, BRAND_COUNT, Distribution.FULL);
+        productService = new ProductService(repository, new QueryResultCache(meterRegistry, true));
+        importRows = new ArrayList<>(IMPORT_ROWS);
+        for (int row = 0; row < IMPORT_ROWS; row++) {
+            importRows.add(new Product(CatalogFixture.brandName(row % BRAND_COUNT), CATEGORIES[row % CATEGORIES.length],
+                    CatalogFixture.MIN_PRICE + row));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+        final double p50 = readPercentiles.stream().mapToLong(percentiles -> percentiles[0]).average().orElse(0);
+        final double p99 = readPercentiles.stream().mapToLong(percentiles -> percentiles[1]).average().orElse(0);
+        System.out.printf("%n[read latency] threading=%s concurrency=%d p50=%.1fus p99=%.1fus%n",
+                threading, concurrency, p50 / 1_000, p99 / 1_000);
+        readPercentiles.clear();
+    }
+
+    @Benchmark
+    public long burst() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(concurrency);
+        final long[] readLatencies = new long[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            final int request = i;
+            final long submittedAt = System.nanoTime();
+            executor.execute(() -> {
+                try {
+                    if (request % 100 == 0) {
+                        repository.addProducts(importRows);
+                    } else if (request % 10 == 0) {
+                        final String brandName = CatalogFixture.brandName(ThreadLocalRandom.current().nextInt(BRAND_COUNT));
+                        productService.updateProduct(brandName, new ProductRequest(brandName,
+                                CATEGORIES[request % CATEGORIES.length].name(), CatalogFixture.MIN_PRICE + request));
+                    } else {
+                        productService.getCatalogVersion();
+                        productService.getLowestPricedProductsByCategory();
+                        readLatencies[request] = System.nanoTime() - submittedAt;
+                    }
+                } catch (ProductException e) {
+                    // 락 획득 재시도를 모두 소진한 요청도 처리된 것으로 본다.
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        readPercentiles.add(percentiles(readLatencies));
+        return readLatencies.length;
+    }
+
+    private static long[] percentiles(long[] latencies) {
+        final long[] reads = Arrays.stream(latencies).filter(latency -> latency > 0).sorted().toArray();
+        if (reads.length == 0) {
+            return new long[]{0, 0};
+        }
+        return new long[]{reads[reads.length / 2], reads[(int) (reads.length * 0.99)]};
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(RequestThreadingBenchmark.class.getName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -12,4 +12,13 @@ public @interface ReadLock {
     int maxRetries() default 3;
     long retryDelay() default 100;
     TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
+    // 메서드 파라미터에 대한 SpEL 식(예: "#brandName"). 비어 있으면 카탈로그 전체를 잠근다.
+    String key() default "";
+    // key가 비어 있을 때만 사용한다. false면 카탈로그 전체 쓰기와만 배타적이고 키가 있는 쓰기와는 동시에 실행된다.
+    // 읽는 구조가 자체 락(카테고리별 인덱스 락 등)으로 키가 있는 쓰기로부터 보호되는 읽기에만 false로 둔다.
+    boolean excludeKeyedWrites() default true;
+    // sinsa.lock.strategy=stamped 일 때 락 없이 먼저 실행한 뒤 그 사이 쓰기가 없었는지 검증한다.
+    // 쓰기와 겹치면 깨진 링크를 따라가거나 끝나지 않을 수 있으므로 TreeMap, TreeSet 같은 변경되는 구조를 순회하는 읽기에는 쓰면 안 된다.
+    // 고정된 개수의 필드만 읽어 지역 변수로 복사하는 읽기(예: slot 하나의 행)에만 true로 둔다.
+    boolean optimistic() default false;
 }
@@ -12,4 +12,6 @@ public @interface WriteLock {
     int maxRetries() default 3;
     long retryDelay() default 100;
     TimeUnit timeUnit() default TimeUnit.MILLISECONDS;
+    // 메서드 파라미터에 대한 SpEL 식(예: "#brandName"). 비어 있으면 카탈로그 전체를 잠근다.
+    String key() default "";
 }
@@ -2,21 +2,58 @@ package me.saechimdaeki.sinsa.common.config;
 
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import me.saechimdaeki.sinsa.product.repository.InMemoryProductRepositoryImpl;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.journal.CatalogSnapshotService;
+import me.saechimdaeki.sinsa.product.journal.ProductJournal;
+import me.saechimdaeki.sinsa.product.repository.CatalogImage;
+import me.saechimdaeki.sinsa.product.repository.InitialCatalog;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.Optional;
+
 
 @Component
 @Profile("!test")
 @RequiredArgsConstructor
 public class DataInitializer {
 
-    private final InMemoryProductRepositoryImpl productRepository;
+    private final ProductRepository productRepository;
+
+    private final ObjectProvider<ProductJournal> productJournal;
+
+    private final ObjectProvider<CatalogSnapshotService> catalogSnapshotService;
 
     @PostConstruct
-    //과제에서 요구하는 첫 데이터 삽입
-    public void initData() {
-        productRepository.initData();
+    //과제에서 요구하는 첫 데이터 삽입. 스냅샷이나 저널이 있으면 이전 상태를 복원한다.
+    public void initData() throws IOException {
+        // mmap 모드에서 기존 저장소 파일을 열었다면 비어 있더라도 그 상태를 그대로 사용한다.
+        if (productRepository.isOpenedFromStorage()) {
+            return;
+        }
+        boolean restored = false;
+        long journalPosition = 0;
+        final CatalogSnapshotService snapshots = catalogSnapshotService.getIfAvailable();
+        if (snapshots != null) {
+            final Optional<CatalogImage> image = snapshots.load();
+            if (image.isPresent()) {
+                productRepository.importImage(image.get());
+                journalPosition = image.get().getCheckpoint();
+                restored = true;
+            }
+        }
+        final ProductJournal journal = productJournal.getIfAvailable();
+        if (journal != null) {
+            restored |= journal.replay(journalPosition, entry -> entry.applyTo(productRepository)) > 0;
+        }
+        if (restored) {
+            return;
+        }
+        for (Brand brand : InitialCatalog.brands()) {
+            productRepository.addBrand(brand);
+        }
     }
-}
\ No newline at end of file
+}
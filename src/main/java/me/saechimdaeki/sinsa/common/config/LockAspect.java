@@ -1,68 +1,162 @@
 package me.saechimdaeki.sinsa.common.config;
 
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.saechimdaeki.sinsa.common.annotation.ReadLock;
 import me.saechimdaeki.sinsa.common.annotation.WriteLock;
+import me.saechimdaeki.sinsa.common.lock.LockMeters;
+import me.saechimdaeki.sinsa.common.lock.LockMetrics;
+import me.saechimdaeki.sinsa.common.lock.LockMode;
+import me.saechimdaeki.sinsa.common.lock.LockStrategy;
 import me.saechimdaeki.sinsa.product.exception.ErrorCode;
 import me.saechimdaeki.sinsa.product.exception.ProductException;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+// 락은 모두 java.util.concurrent 락의 tryLock으로 기다리므로, 가상 스레드에서 대기해도 캐리어 스레드를 붙잡지(pinning) 않는다.
+// 락 안에서 실행되는 코드도 synchronized를 쓰지 않는다. 모니터 진입 경합은 JFR pinning 이벤트로 드러나지 않는다. (VirtualThreadPinningTest)
 @Aspect
 @Component
+@Order(LockAspect.ORDER)
 @Slf4j
+@RequiredArgsConstructor
 public class LockAspect {
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // 락 안쪽, 바깥쪽에서 실행되어야 하는 다른 aspect가 이 값을 기준으로 순서를 정한다.
+    public static final int ORDER = 0;
+
+    private static final ExpressionParser EXPRESSION_PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final LockStrategy lock;
+
+    private final LockMetrics lockMetrics;
+
+    private final Map<String, Expression> keyExpressions = new ConcurrentHashMap<>();
 
     @Around("@annotation(readLock)")
     public Object aroundReadLock(ProceedingJoinPoint joinPoint, ReadLock readLock) throws Throwable {
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (readLock.optimistic()) {
+            final long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                final LockMeters meters = lockMetrics.meters(method, LockMode.OPTIMISTIC_READ);
+                final long startedAt = System.nanoTime();
+                try {
+                    final Object result = joinPoint.proceed();
+                    if (lock.validate(stamp)) {
+                        return result;
+                    }
+                } catch (Throwable e) {
+                    // 쓰기와 겹쳐 깨진 상태를 보고 발생한 예외일 수 있으므로 검증에 실패하면 락을 잡고 다시 실행한다.
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                } finally {
+                    meters.recordHold(System.nanoTime() - startedAt);
+                }
+                meters.recordInvalidation();
+                log.debug("Optimistic read invalidated by a writer, falling back to read lock");
+            }
+        }
+
+        final LockMeters meters = lockMetrics.meters(method, LockMode.READ);
+        final Object key = lockKey(joinPoint, readLock.key());
+        final boolean global = key == null && !readLock.excludeKeyedWrites();
+        final long waitStartedAt = System.nanoTime();
         int retries = 0;
         while (retries < readLock.maxRetries()) {
             try {
-                if (lock.readLock().tryLock(readLock.retryDelay(), readLock.timeUnit())) {
+                final long stamp = global
+                        ? lock.tryGlobalReadLock(readLock.retryDelay(), readLock.timeUnit())
+                        : lock.tryReadLock(key, readLock.retryDelay(), readLock.timeUnit());
+                if (stamp != 0L) {
+                    final long acquiredAt = System.nanoTime();
+                    meters.recordAcquire(acquiredAt - waitStartedAt);
                     try {
                         return joinPoint.proceed();
                     } finally {
-                        lock.readLock().unlock();
+                        if (global) {
+                            lock.unlockGlobalRead(stamp);
+                        } else {
+                            lock.unlockRead(key, stamp);
+                        }
+                        meters.recordHold(System.nanoTime() - acquiredAt);
                     }
                 } else {
                     retries++;
+                    meters.recordRetry();
                     log.warn("Retrying to acquire read lock... attempt: {}", retries);
                 }
             } catch (InterruptedException e) {
                 throw new RuntimeException("Thread interrupted while acquiring read lock", e);
             }
         }
+        meters.recordAcquire(System.nanoTime() - waitStartedAt);
+        meters.recordFailure();
         log.error("Failed to acquire Read lock after {} retries", retries);
         throw new ProductException(ErrorCode.DATA_READ_ERROR);
     }
 
     @Around("@annotation(writeLock)")
     public Object aroundWriteLock(ProceedingJoinPoint joinPoint, WriteLock writeLock) throws Throwable {
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        final LockMeters meters = lockMetrics.meters(method, LockMode.WRITE);
+        final Object key = lockKey(joinPoint, writeLock.key());
+        final long waitStartedAt = System.nanoTime();
         int retries = 0;
         while (retries < writeLock.maxRetries()) {
             try {
-                if (lock.writeLock().tryLock(writeLock.retryDelay(), writeLock.timeUnit())) {
+                final long stamp = lock.tryWriteLock(key, writeLock.retryDelay(), writeLock.timeUnit());
+                if (stamp != 0L) {
+                    final long acquiredAt = System.nanoTime();
+                    meters.recordAcquire(acquiredAt - waitStartedAt);
                     try {
                         return joinPoint.proceed();
                     } finally {
-                        lock.writeLock().unlock();
+                        lock.unlockWrite(key, stamp);
+                        meters.recordHold(System.nanoTime() - acquiredAt);
                     }
                 } else {
                     retries++;
-                    log.warn("Retrying to acquire read lock... attempt: {}", retries);
+                    meters.recordRetry();
+                    log.warn("Retrying to acquire write lock... attempt: {}", retries);
                 }
             } catch (InterruptedException e) {
                 throw new RuntimeException("Thread interrupted while acquiring write lock", e);
             }
         }
+        meters.recordAcquire(System.nanoTime() - waitStartedAt);
+        meters.recordFailure();
         log.error("Failed to acquire write lock after {} retries", retries);
         throw new ProductException(ErrorCode.DATA_SAVE_ERROR);
     }
+
+    // 키 식이 없거나 결과가 null이면 카탈로그 전체 락을 사용하도록 null을 반환한다.
+    private Object lockKey(ProceedingJoinPoint joinPoint, String keyExpression) {
+        if (!StringUtils.hasText(keyExpression)) {
+            return null;
+        }
+        final Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        final MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                joinPoint.getTarget(), method, joinPoint.getArgs(), PARAMETER_NAME_DISCOVERER);
+        return keyExpressions.computeIfAbsent(keyExpression, EXPRESSION_PARSER::parseExpression)
+                .getValue(context);
+    }
 }
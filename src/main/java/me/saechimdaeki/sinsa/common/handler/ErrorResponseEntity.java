@@ -4,7 +4,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import me.saechimdaeki.sinsa.product.exception.ErrorCode;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
 
 @Builder
 @Getter
@@ -18,11 +20,24 @@ public class ErrorResponseEntity {
     public static ResponseEntity<ErrorResponseEntity> toResponseEntity(ErrorCode e) {
         return ResponseEntity
                 .status(e.getHttpStatus())
-                .body(builder()
-                        .status(e.getHttpStatus().value())
-                        .name(e.name())
-                        .code(e.getCode())
-                        .message(e.getMessage())
-                        .build());
+                .body(of(e));
+    }
+
+    public static ErrorResponseEntity of(ErrorCode e) {
+        return builder()
+                .status(e.getHttpStatus().value())
+                .name(e.name())
+                .code(e.getCode())
+                .message(e.getMessage())
+                .build();
+    }
+
+    // 요청 본문 검증 실패. fieldError가 null이면 어떤 필드인지 알 수 없는 경우이다.
+    public static ErrorResponseEntity of(FieldError fieldError) {
+        if (fieldError == null) {
+            return new ErrorResponseEntity(HttpStatus.BAD_REQUEST.value(), "Invalid request", "BindException", "");
+        }
+        return new ErrorResponseEntity(HttpStatus.BAD_REQUEST.value(),
+                fieldError.getDefaultMessage(), "BindException", fieldError.getField());
     }
 }
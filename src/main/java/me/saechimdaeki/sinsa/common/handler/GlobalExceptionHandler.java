@@ -4,7 +4,6 @@ import me.saechimdaeki.sinsa.product.exception.ProductException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
-import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -18,13 +17,7 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(BindException.class)
     public ResponseEntity<ErrorResponseEntity> handleBindException(BindException ex) {
-        final FieldError fieldError = ex.getBindingResult().getFieldError();
-        if (fieldError == null) {
-            return new ResponseEntity<>(new ErrorResponseEntity(HttpStatus.BAD_REQUEST.value(),
-                    "Invalid request", "BindException", ""), HttpStatus.BAD_REQUEST);
-        }
-        return new ResponseEntity<>(new ErrorResponseEntity(HttpStatus.BAD_REQUEST.value(),
-                fieldError.getDefaultMessage(), "BindException", fieldError.getField()), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(ErrorResponseEntity.of(ex.getBindingResult().getFieldError()), HttpStatus.BAD_REQUEST);
     }
 
 }
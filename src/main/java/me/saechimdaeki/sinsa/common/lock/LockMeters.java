@@ -0,0 +1,52 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+// 락을 거는 메서드 하나, 락 모드 하나에 대한 측정값
+@Getter
+@RequiredArgsConstructor
+public class LockMeters {
+    // 락을 획득하기까지 기다린 시간 (실패한 시도 포함)
+    private final Timer acquireTimer;
+    // 락을 잡은 채로 메서드를 실행한 시간
+    private final Timer holdTimer;
+    // tryLock 시간 초과로 다시 시도한 횟수
+    private final Counter retryCounter;
+    // maxRetries를 모두 소진하여 DATA_READ_ERROR/DATA_SAVE_ERROR로 끝난 횟수. 낙관적 읽기에서는 null
+    private final Counter failureCounter;
+    // 낙관적 읽기가 쓰기와 겹쳐 읽기 락으로 다시 실행한 횟수. 읽기, 쓰기 락에서는 null
+    private final Counter invalidationCounter;
+
+    public void recordAcquire(long nanos) {
+        acquireTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordHold(long nanos) {
+        holdTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRetry() {
+        retryCounter.increment();
+    }
+
+    public void recordFailure() {
+        failureCounter.increment();
+    }
+
+    public void recordInvalidation() {
+        invalidationCounter.increment();
+    }
+
+    public long failures() {
+        return failureCounter == null ? 0L : (long) failureCounter.count();
+    }
+
+    public long invalidations() {
+        return invalidationCounter == null ? 0L : (long) invalidationCounter.count();
+    }
+}
@@ -0,0 +1,78 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// LockAspect의 락 대기 시간, 점유 시간, 재시도, 실패, 낙관적 읽기 무효화 횟수를 메서드와 락 모드별로 Micrometer에 기록한다.
+// 매 호출마다 미터를 조회하지 않도록 메서드, 모드별 미터를 캐시한다.
+@Component
+@RequiredArgsConstructor
+public class LockMetrics {
+
+    public static final String ACQUIRE = "sinsa.lock.acquire";
+    public static final String HOLD = "sinsa.lock.hold";
+    public static final String RETRIES = "sinsa.lock.retries";
+    public static final String FAILURES = "sinsa.lock.failures";
+    // 낙관적 읽기 검증 실패는 정상적인 경로이므로 오류인 FAILURES와 따로 센다.
+    public static final String INVALIDATIONS = "sinsa.lock.invalidations";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Map<LockMode, LockMeters>> metersByMethod = new ConcurrentHashMap<>();
+
+    public LockMeters meters(Method method, LockMode mode) {
+        return metersByMethod
+                .computeIfAbsent(method, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(mode, key -> register(method, mode));
+    }
+
+    public List<LockStats> stats() {
+        final List<LockStats> stats = new ArrayList<>();
+        metersByMethod.forEach((method, metersByMode) ->
+                metersByMode.forEach((mode, meters) -> stats.add(LockStats.of(methodName(method), mode, meters))));
+        stats.sort(Comparator.comparing(LockStats::getMethod).thenComparing(LockStats::getMode));
+        return stats;
+    }
+
+    private LockMeters register(Method method, LockMode mode) {
+        final Tags tags = Tags.of("method", methodName(method), "mode", mode.tagValue());
+        return new LockMeters(
+                Timer.builder(ACQUIRE)
+                        .description("Time spent waiting to acquire a catalog lock")
+                        .tags(tags)
+                        .publishPercentiles(0.5, 0.99, 0.999)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Timer.builder(HOLD)
+                        .description("Time a catalog lock was held while running the method")
+                        .tags(tags)
+                        .publishPercentiles(0.5, 0.99, 0.999)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                Counter.builder(RETRIES)
+                        .description("tryLock attempts that timed out and were retried")
+                        .tags(tags)
+                        .register(meterRegistry),
+                mode == LockMode.OPTIMISTIC_READ ? null : Counter.builder(FAILURES)
+                        .description("Lock acquisitions that gave up after maxRetries")
+                        .tags(tags)
+                        .register(meterRegistry),
+                mode != LockMode.OPTIMISTIC_READ ? null : Counter.builder(INVALIDATIONS)
+                        .description("Optimistic reads invalidated by a writer and rerun under the read lock")
+                        .tags(tags)
+                        .register(meterRegistry)
+        );
+    }
+
+    private static String methodName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+}
@@ -0,0 +1,23 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/locks : 메서드, 락 모드별 대기/점유 시간과 재시도, 실패, 낙관적 읽기 무효화 횟수 요약
+// 분포(히스토그램)는 /actuator/metrics/sinsa.lock.acquire 등으로 조회한다.
+@Component
+@Endpoint(id = "locks")
+@RequiredArgsConstructor
+public class LockMetricsEndpoint {
+
+    private final LockMetrics lockMetrics;
+
+    @ReadOperation
+    public List<LockStats> locks() {
+        return lockMetrics.stats();
+    }
+}
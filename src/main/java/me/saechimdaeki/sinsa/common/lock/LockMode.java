@@ -0,0 +1,12 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+public enum LockMode {
+    READ,
+    WRITE,
+    // StampedLock 전략에서 락 없이 실행한 뒤 검증하는 읽기
+    OPTIMISTIC_READ;
+
+    public String tagValue() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,36 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@AllArgsConstructor
+public class LockStats {
+    private String method;
+    private String mode;
+    private long acquireCount;
+    private double acquireMeanMillis;
+    private double acquireMaxMillis;
+    private double holdMeanMillis;
+    private double holdMaxMillis;
+    private long retries;
+    private long failures;
+    private long invalidations;
+
+    static LockStats of(String method, LockMode mode, LockMeters meters) {
+        return new LockStats(
+                method,
+                mode.tagValue(),
+                meters.getAcquireTimer().count(),
+                meters.getAcquireTimer().mean(TimeUnit.MILLISECONDS),
+                meters.getAcquireTimer().max(TimeUnit.MILLISECONDS),
+                meters.getHoldTimer().mean(TimeUnit.MILLISECONDS),
+                meters.getHoldTimer().max(TimeUnit.MILLISECONDS),
+                (long) meters.getRetryCounter().count(),
+                meters.failures(),
+                meters.invalidations()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import java.util.concurrent.TimeUnit;
+
+// LockAspect가 사용하는 락 구현. StampedLock과 같은 규약으로 0을 반환하면 획득에 실패한 것이다.
+// key가 null이면 카탈로그 전체에 대한 락이고, key가 있으면 해당 키에 대한 락이다.
+public interface LockStrategy {
+
+    // 낙관적 읽기를 지원하지 않거나 쓰기 락이 잡혀 있으면 0을 반환한다.
+    long tryOptimisticRead();
+
+    boolean validate(long stamp);
+
+    long tryReadLock(Object key, long time, TimeUnit unit) throws InterruptedException;
+
+    void unlockRead(Object key, long stamp);
+
+    // 카탈로그 전체 쓰기와만 배타적인 읽기 락. 키가 있는 쓰기와는 동시에 잡을 수 있다.
+    long tryGlobalReadLock(long time, TimeUnit unit) throws InterruptedException;
+
+    void unlockGlobalRead(long stamp);
+
+    long tryWriteLock(Object key, long time, TimeUnit unit) throws InterruptedException;
+
+    void unlockWrite(Object key, long stamp);
+}
@@ -0,0 +1,130 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 전역 락과 키별 stripe 락을 계층적으로 사용한다.
+// - 키가 있는 읽기/쓰기: 전역 읽기 락 + 키의 stripe 읽기/쓰기 락
+// - 카탈로그 전체 읽기: 전역 읽기 락 + 모든 stripe 읽기 락 (키가 있는 쓰기와 배타적)
+// - 전역 읽기: 전역 읽기 락만 (카탈로그 전체 쓰기와만 배타적). 인덱스처럼 자체 락이 있는 구조를 읽을 때 사용한다.
+// - 카탈로그 전체 쓰기: 전역 쓰기 락 (모든 락과 배타적)
+// stripe는 항상 번호 순서대로 잡으므로 교착 상태가 생기지 않는다.
+@Component
+@ConditionalOnProperty(name = "sinsa.lock.strategy", havingValue = "reentrant", matchIfMissing = true)
+public class ReentrantLockStrategy implements LockStrategy {
+
+    private static final long LOCKED = 1L;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ReentrantReadWriteLock[] stripes;
+
+    public ReentrantLockStrategy(@Value("${sinsa.lock.stripes:16}") int stripeCount) {
+        // 키를 stripe에 비트 연산으로 나누기 위해 2의 거듭제곱으로 맞춘다.
+        final int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantReadWriteLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    @Override
+    public long tryOptimisticRead() {
+        return 0L;
+    }
+
+    @Override
+    public boolean validate(long stamp) {
+        return false;
+    }
+
+    @Override
+    public long tryReadLock(Object key, long time, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(time);
+        if (!lock.readLock().tryLock(time, unit)) {
+            return 0L;
+        }
+        final boolean locked = key == null
+                ? tryLockAllStripes(deadline)
+                : tryLock(stripeOf(key).readLock(), deadline);
+        if (!locked) {
+            lock.readLock().unlock();
+            return 0L;
+        }
+        return LOCKED;
+    }
+
+    @Override
+    public void unlockRead(Object key, long stamp) {
+        if (key == null) {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].readLock().unlock();
+            }
+        } else {
+            stripeOf(key).readLock().unlock();
+        }
+        lock.readLock().unlock();
+    }
+
+    @Override
+    public long tryGlobalReadLock(long time, TimeUnit unit) throws InterruptedException {
+        return lock.readLock().tryLock(time, unit) ? LOCKED : 0L;
+    }
+
+    @Override
+    public void unlockGlobalRead(long stamp) {
+        lock.readLock().unlock();
+    }
+
+    @Override
+    public long tryWriteLock(Object key, long time, TimeUnit unit) throws InterruptedException {
+        if (key == null) {
+            return lock.writeLock().tryLock(time, unit) ? LOCKED : 0L;
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(time);
+        if (!lock.readLock().tryLock(time, unit)) {
+            return 0L;
+        }
+        if (!tryLock(stripeOf(key).writeLock(), deadline)) {
+            lock.readLock().unlock();
+            return 0L;
+        }
+        return LOCKED;
+    }
+
+    @Override
+    public void unlockWrite(Object key, long stamp) {
+        if (key == null) {
+            lock.writeLock().unlock();
+            return;
+        }
+        stripeOf(key).writeLock().unlock();
+        lock.readLock().unlock();
+    }
+
+    private ReentrantReadWriteLock stripeOf(Object key) {
+        final int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private boolean tryLockAllStripes(long deadline) throws InterruptedException {
+        for (int i = 0; i < stripes.length; i++) {
+            if (!tryLock(stripes[i].readLock(), deadline)) {
+                for (int j = i - 1; j >= 0; j--) {
+                    stripes[j].readLock().unlock();
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean tryLock(Lock stripeLock, long deadline) throws InterruptedException {
+        return stripeLock.tryLock(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,59 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+// @ReadLock(optimistic = true)인 읽기는 공유 상태에 쓰지 않는 낙관적 읽기로 먼저 시도하여 코어 간 캐시 라인 경합을 줄인다.
+// 나머지 읽기는 처음부터 읽기 락을 잡는다.
+// StampedLock은 재진입이 되지 않으므로 락이 걸린 메서드 안에서 다시 락 메서드를 호출하면 안 된다.
+// 낙관적 읽기는 모든 쓰기가 stamp를 바꿔야 검증할 수 있으므로 키별 락을 쓰지 않고 키를 무시한다.
+@Component
+@ConditionalOnProperty(name = "sinsa.lock.strategy", havingValue = "stamped")
+public class StampedLockStrategy implements LockStrategy {
+
+    private final StampedLock lock = new StampedLock();
+
+    @Override
+    public long tryOptimisticRead() {
+        return lock.tryOptimisticRead();
+    }
+
+    @Override
+    public boolean validate(long stamp) {
+        return lock.validate(stamp);
+    }
+
+    @Override
+    public long tryReadLock(Object key, long time, TimeUnit unit) throws InterruptedException {
+        return lock.tryReadLock(time, unit);
+    }
+
+    @Override
+    public void unlockRead(Object key, long stamp) {
+        lock.unlockRead(stamp);
+    }
+
+    // 키를 무시하므로 모든 쓰기와 배타적인 읽기 락과 같다.
+    @Override
+    public long tryGlobalReadLock(long time, TimeUnit unit) throws InterruptedException {
+        return lock.tryReadLock(time, unit);
+    }
+
+    @Override
+    public void unlockGlobalRead(long stamp) {
+        lock.unlockRead(stamp);
+    }
+
+    @Override
+    public long tryWriteLock(Object key, long time, TimeUnit unit) throws InterruptedException {
+        return lock.tryWriteLock(time, unit);
+    }
+
+    @Override
+    public void unlockWrite(Object key, long stamp) {
+        lock.unlockWrite(stamp);
+    }
+}
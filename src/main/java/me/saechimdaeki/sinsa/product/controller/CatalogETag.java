@@ -0,0 +1,39 @@
+package me.saechimdaeki.sinsa.product.controller;
+
+import me.saechimdaeki.sinsa.product.domain.CatalogEpoch;
+
+// ProductController와 ProductHandler가 같은 ETag를 만들도록 조회 API별 ETag를 한 곳에서 만든다.
+// 재시작하거나 다른 노드로 요청이 가도 이전 ETag가 같은 번호의 다른 카탈로그와 일치하지 않도록 CatalogEpoch를 넣는다.
+final class CatalogETag {
+
+    private CatalogETag() {
+    }
+
+    static String lowestCategory(long version) {
+        return of("lowest-category", version);
+    }
+
+    static String lowestBrand(long version) {
+        return of("lowest-brand", version);
+    }
+
+    static String category(String categoryName, long version) {
+        return of(categoryName.toLowerCase(), version);
+    }
+
+    static String ranked(String categoryName, String order, int limit, long version) {
+        return of(categoryName.toLowerCase() + "-top-" + order.toLowerCase() + "-" + limit, version);
+    }
+
+    static String priceRange(String categoryName, long min, long max, int page, int size, long version) {
+        return of(categoryName.toLowerCase() + "-range-" + min + "-" + max + "-" + page + "-" + size, version);
+    }
+
+    static String priceRangeCount(String categoryName, long min, long max, long version) {
+        return of(categoryName.toLowerCase() + "-range-count-" + min + "-" + max, version);
+    }
+
+    private static String of(String resource, long version) {
+        return "\"" + resource + "-" + CatalogEpoch.CURRENT + "-" + version + "\"";
+    }
+}
@@ -3,31 +3,127 @@ package me.saechimdaeki.sinsa.product.controller;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import me.saechimdaeki.sinsa.product.dto.*;
+import me.saechimdaeki.sinsa.product.service.ProductImportService;
 import me.saechimdaeki.sinsa.product.service.ProductService;
+import me.saechimdaeki.sinsa.product.stream.LowestPriceStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/store")
 public class ProductController {
 
     private final ProductService productService;
 
+    private final ProductImportService productImportService;
+
+    private final LowestPriceStream lowestPriceStream;
+
+    // 조회 API는 카탈로그 버전으로 ETag를 만들고, If-None-Match가 일치하면 조회 없이 304를 반환한다.
     @GetMapping("/lowest-category")
-    public ResponseEntity<LowestCategoryResponse> getProductsByLowestCategory() {
-        return ResponseEntity.ok(productService.getLowestPricedProductsByCategory());
+    public ResponseEntity<LowestCategoryResponse> getProductsByLowestCategory(WebRequest request) {
+        final String eTag = CatalogETag.lowestCategory(productService.getCatalogVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getLowestPricedProductsByCategory());
+    }
+
+    // 폴링하는 클라이언트를 위해 sinceVersion 이후로 최저가가 바뀐 카테고리만 반환한다.
+    // 바뀐 것이 없으면 본문 없이 204를 반환하며, 응답의 version을 다음 요청의 sinceVersion으로 사용한다.
+    @GetMapping(value = "/lowest-category", params = "sinceVersion")
+    public ResponseEntity<LowestCategoryChangesResponse> getProductsByLowestCategorySince(@RequestParam String sinceVersion) {
+        return productService.getLowestPricedProductsByCategorySince(sinceVersion)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @GetMapping("/lowest-brand")
-    public ResponseEntity<LowestBrandResponse> getProductsByBrand() {
-        return ResponseEntity.ok(productService.getBrandWithLowestTotalPrice());
+    public ResponseEntity<LowestBrandResponse> getProductsByBrand(WebRequest request) {
+        final String eTag = CatalogETag.lowestBrand(productService.getCatalogVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getBrandWithLowestTotalPrice());
+    }
+
+    @GetMapping(value = "/lowest-brand", params = "sinceVersion")
+    public ResponseEntity<LowestBrandChangesResponse> getProductsByBrandSince(@RequestParam String sinceVersion) {
+        return productService.getBrandWithLowestTotalPriceSince(sinceVersion)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @GetMapping("/category")
-    public ResponseEntity<PriceByCategoryResponse> getProductsByCategory(@RequestParam String category) {
-        return ResponseEntity.ok(productService.getCategoryPriceInfo(category));
+    public ResponseEntity<PriceByCategoryResponse> getProductsByCategory(@RequestParam String category,
+                                                                         WebRequest request) {
+        final String eTag = CatalogETag.category(category, productService.getCategoryVersion(category));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getCategoryPriceInfo(category));
+    }
+
+    // 카테고리 상품을 가격 순서(lowest, highest)대로 limit개까지 반환한다.
+    @GetMapping("/category/{categoryName}/top")
+    public ResponseEntity<RankedBrandsResponse> getRankedBrands(@PathVariable String categoryName,
+                                                                @RequestParam(defaultValue = "lowest") String order,
+                                                                @RequestParam(defaultValue = "20") int limit,
+                                                                WebRequest request) {
+        final String eTag = CatalogETag.ranked(categoryName, order, limit,
+                productService.getCategoryVersion(categoryName));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getRankedBrands(categoryName, order, limit));
+    }
+
+    // 가격이 min 이상 max 이하인 카테고리 상품을 가격 순서대로 페이지 단위로 반환한다.
+    @GetMapping("/category/{categoryName}/range")
+    public ResponseEntity<PriceRangeResponse> getPriceRange(@PathVariable String categoryName,
+                                                            @RequestParam(defaultValue = "0") long min,
+                                                            @RequestParam(required = false) Long max,
+                                                            @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            WebRequest request) {
+        final long maxPrice = max == null ? Long.MAX_VALUE : max;
+        final String eTag = CatalogETag.priceRange(categoryName, min, maxPrice, page, size,
+                productService.getCategoryVersion(categoryName));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getPriceRange(categoryName, min, maxPrice, page, size));
+    }
+
+    // 구간의 상품 수만 필요한 경우(필터 facet 등) 상품 목록을 만들지 않고 센다.
+    @GetMapping("/category/{categoryName}/range/count")
+    public ResponseEntity<PriceRangeCountResponse> countPriceRange(@PathVariable String categoryName,
+                                                                   @RequestParam(defaultValue = "0") long min,
+                                                                   @RequestParam(required = false) Long max,
+                                                                   WebRequest request) {
+        final long maxPrice = max == null ? Long.MAX_VALUE : max;
+        final String eTag = CatalogETag.priceRangeCount(categoryName, min, maxPrice,
+                productService.getCategoryVersion(categoryName));
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.countPriceRange(categoryName, min, maxPrice));
+    }
+
+    // 카테고리 최저가나 최저 총액 브랜드가 바뀔 때마다 변경분을 보내는 SSE 스트림. 연결 직후에는 현재 상태 전체를 보낸다.
+    @GetMapping(value = "/lowest-price/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowestPrices() {
+        return lowestPriceStream.subscribe();
     }
 
     @PostMapping("/brand")
@@ -40,6 +136,23 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(productRequest));
     }
 
+    // 연산 전체를 한 번의 쓰기 락으로 반영하며, 하나라도 실패하면 아무것도 반영하지 않는다.
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> applyBatch(@RequestBody @Valid BatchRequest batchRequest) {
+        return ResponseEntity.ok(productService.applyBatch(batchRequest));
+    }
+
+    // 요청 본문을 버퍼링하지 않고 스트림으로 읽어 배치 단위로 반영한다.
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<ImportResponse> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importNdjson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResponse> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importCsv(body));
+    }
+
     @PutMapping("/brand/{brandName}")
     public ResponseEntity<ProductResponse> updateProduct(@PathVariable String brandName,
                                                          @RequestBody @Valid ProductRequest productRequest) {
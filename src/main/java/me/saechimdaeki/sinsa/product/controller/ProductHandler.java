@@ -0,0 +1,217 @@
+package me.saechimdaeki.sinsa.product.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.saechimdaeki.sinsa.common.handler.ErrorResponseEntity;
+import me.saechimdaeki.sinsa.product.dto.BatchRequest;
+import me.saechimdaeki.sinsa.product.dto.BrandRequest;
+import me.saechimdaeki.sinsa.product.dto.ProductRequest;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.service.CatalogCallScheduler;
+import me.saechimdaeki.sinsa.product.service.ProductImportService;
+import me.saechimdaeki.sinsa.product.service.ProductService;
+import me.saechimdaeki.sinsa.product.stream.LowestPriceStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Conventions;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindException;
+import org.springframework.validation.Validator;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+// ProductController와 같은 /store API의 WebFlux 핸들러. 응답 본문, 상태 코드, ETag, 오류 응답은 ProductController와 같다.
+// 서비스 호출은 CatalogCallScheduler로 실행하므로 이벤트 루프 스레드는 락을 기다리지 않는다.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ProductHandler {
+
+    private final ProductService productService;
+
+    private final ProductImportService productImportService;
+
+    private final LowestPriceStream lowestPriceStream;
+
+    private final CatalogCallScheduler calls;
+
+    private final Validator validator;
+
+    public Mono<ServerResponse> getProductsByLowestCategory(ServerRequest request) {
+        return conditional(request, CatalogETag.lowestCategory(productService.getCatalogVersion()),
+                productService::getLowestPricedProductsByCategory);
+    }
+
+    public Mono<ServerResponse> getProductsByLowestCategorySince(ServerRequest request) {
+        final String sinceVersion = request.queryParam("sinceVersion").orElse("0");
+        return calls.read(() -> productService.getLowestPricedProductsByCategorySince(sinceVersion).orElse(null))
+                .flatMap(changes -> ServerResponse.ok().bodyValue(changes))
+                .switchIfEmpty(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> getProductsByBrand(ServerRequest request) {
+        return conditional(request, CatalogETag.lowestBrand(productService.getCatalogVersion()),
+                productService::getBrandWithLowestTotalPrice);
+    }
+
+    public Mono<ServerResponse> getProductsByBrandSince(ServerRequest request) {
+        final String sinceVersion = request.queryParam("sinceVersion").orElse("0");
+        return calls.read(() -> productService.getBrandWithLowestTotalPriceSince(sinceVersion).orElse(null))
+                .flatMap(changes -> ServerResponse.ok().bodyValue(changes))
+                .switchIfEmpty(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> getProductsByCategory(ServerRequest request) {
+        final String category = request.queryParam("category")
+                .orElseThrow(() -> new ServerWebInputException("Required query parameter 'category' is not present."));
+        return conditional(request, CatalogETag.category(category, productService.getCategoryVersion(category)),
+                () -> productService.getCategoryPriceInfo(category));
+    }
+
+    public Mono<ServerResponse> getRankedBrands(ServerRequest request) {
+        final String categoryName = request.pathVariable("categoryName");
+        final String order = request.queryParam("order").orElse("lowest");
+        final int limit = intParam(request, "limit", 20);
+        return conditional(request,
+                CatalogETag.ranked(categoryName, order, limit, productService.getCategoryVersion(categoryName)),
+                () -> productService.getRankedBrands(categoryName, order, limit));
+    }
+
+    public Mono<ServerResponse> getPriceRange(ServerRequest request) {
+        final String categoryName = request.pathVariable("categoryName");
+        final long min = longParam(request, "min", 0L);
+        final long max = longParam(request, "max", Long.MAX_VALUE);
+        final int page = intParam(request, "page", 0);
+        final int size = intParam(request, "size", 20);
+        return conditional(request,
+                CatalogETag.priceRange(categoryName, min, max, page, size,
+                        productService.getCategoryVersion(categoryName)),
+                () -> productService.getPriceRange(categoryName, min, max, page, size));
+    }
+
+    public Mono<ServerResponse> countPriceRange(ServerRequest request) {
+        final String categoryName = request.pathVariable("categoryName");
+        final long min = longParam(request, "min", 0L);
+        final long max = longParam(request, "max", Long.MAX_VALUE);
+        return conditional(request,
+                CatalogETag.priceRangeCount(categoryName, min, max, productService.getCategoryVersion(categoryName)),
+                () -> productService.countPriceRange(categoryName, min, max));
+    }
+
+    public Mono<ServerResponse> streamLowestPrices(ServerRequest request) {
+        return ServerResponse.ok().body(BodyInserters.fromServerSentEvents(lowestPriceStream.events()));
+    }
+
+    public Mono<ServerResponse> createBrand(ServerRequest request) {
+        return validBody(request, BrandRequest.class)
+                .flatMap(brandRequest -> calls.write(() -> productService.createBrand(brandRequest)))
+                .flatMap(brand -> ServerResponse.status(HttpStatus.CREATED).bodyValue(brand));
+    }
+
+    public Mono<ServerResponse> createProduct(ServerRequest request) {
+        return validBody(request, ProductRequest.class)
+                .flatMap(productRequest -> calls.write(() -> productService.createProduct(productRequest)))
+                .flatMap(product -> ServerResponse.status(HttpStatus.CREATED).bodyValue(product));
+    }
+
+    public Mono<ServerResponse> applyBatch(ServerRequest request) {
+        return validBody(request, BatchRequest.class)
+                .flatMap(batchRequest -> calls.write(() -> productService.applyBatch(batchRequest)))
+                .flatMap(result -> ServerResponse.ok().bodyValue(result));
+    }
+
+    // 요청 본문을 버퍼링하지 않고 가상 스레드에서 스트림으로 읽어 배치 단위로 반영한다.
+    public Mono<ServerResponse> importNdjson(ServerRequest request) {
+        return calls.write(() -> {
+            try (InputStream body = CatalogCallScheduler.inputStream(request.bodyToFlux(DataBuffer.class))) {
+                return productImportService.importNdjson(body);
+            }
+        }).flatMap(result -> ServerResponse.ok().bodyValue(result));
+    }
+
+    public Mono<ServerResponse> importCsv(ServerRequest request) {
+        return calls.write(() -> {
+            try (InputStream body = CatalogCallScheduler.inputStream(request.bodyToFlux(DataBuffer.class))) {
+                return productImportService.importCsv(body);
+            }
+        }).flatMap(result -> ServerResponse.ok().bodyValue(result));
+    }
+
+    public Mono<ServerResponse> updateProduct(ServerRequest request) {
+        final String brandName = request.pathVariable("brandName");
+        return validBody(request, ProductRequest.class)
+                .flatMap(productRequest -> calls.write(() -> productService.updateProduct(brandName, productRequest)))
+                .flatMap(product -> ServerResponse.ok().bodyValue(product));
+    }
+
+    public Mono<ServerResponse> deleteBrand(ServerRequest request) {
+        final String brandName = request.pathVariable("brandName");
+        return calls.write(() -> productService.deleteBrand(brandName))
+                .then(ServerResponse.noContent().build());
+    }
+
+    public Mono<ServerResponse> deleteCategory(ServerRequest request) {
+        final String brandName = request.pathVariable("brandName");
+        final String categoryName = request.pathVariable("categoryName");
+        return calls.write(() -> productService.deleteProduct(brandName, categoryName))
+                .then(ServerResponse.noContent().build());
+    }
+
+    // GlobalExceptionHandler와 같은 오류 응답
+    Mono<ServerResponse> productError(ProductException e, ServerRequest request) {
+        return ServerResponse.status(e.getErrorCode().getHttpStatus())
+                .bodyValue(ErrorResponseEntity.of(e.getErrorCode()));
+    }
+
+    Mono<ServerResponse> bindError(BindException e, ServerRequest request) {
+        return ServerResponse.badRequest().bodyValue(ErrorResponseEntity.of(e.getBindingResult().getFieldError()));
+    }
+
+    // If-None-Match가 ETag와 일치하면 조회 없이 304를 반환한다.
+    private Mono<ServerResponse> conditional(ServerRequest request, String eTag, Callable<?> query) {
+        return request.checkNotModified(eTag)
+                .switchIfEmpty(Mono.defer(() -> calls.read(query)
+                        .flatMap(body -> ServerResponse.ok().eTag(eTag).bodyValue(body))));
+    }
+
+    // @RequestBody @Valid와 같이 본문이 없거나 검증에 실패하면 400을 반환한다.
+    private <T> Mono<T> validBody(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .flatMap(body -> {
+                    final BeanPropertyBindingResult errors = new BeanPropertyBindingResult(body, Conventions.getVariableName(body));
+                    validator.validate(body, errors);
+                    return errors.hasErrors() ? Mono.error(new BindException(errors)) : Mono.just(body);
+                });
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return param(request, name, Integer::parseInt, defaultValue);
+    }
+
+    private static long longParam(ServerRequest request, String name, long defaultValue) {
+        return param(request, name, Long::parseLong, defaultValue);
+    }
+
+    // @RequestParam 변환 실패와 같이 잘못된 값이면 400을 반환한다.
+    private static <T> T param(ServerRequest request, String name, Function<String, T> parser, T defaultValue) {
+        final String value = request.queryParam(name).orElse(null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException("Invalid value for query parameter '" + name + "': " + value);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package me.saechimdaeki.sinsa.product.controller;
+
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.validation.BindException;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+
+// spring.main.web-application-type=reactive로 실행하면 ProductController 대신 이 라우터가 /store API를 제공한다.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ProductRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> productRoutes(ProductHandler handler) {
+        return RouterFunctions.route()
+                .path("/store", store -> store
+                        .GET("/lowest-category", queryParam("sinceVersion", value -> true), handler::getProductsByLowestCategorySince)
+                        .GET("/lowest-category", handler::getProductsByLowestCategory)
+                        .GET("/lowest-brand", queryParam("sinceVersion", value -> true), handler::getProductsByBrandSince)
+                        .GET("/lowest-brand", handler::getProductsByBrand)
+                        .GET("/category", handler::getProductsByCategory)
+                        .GET("/category/{categoryName}/top", handler::getRankedBrands)
+                        .GET("/category/{categoryName}/range", handler::getPriceRange)
+                        .GET("/category/{categoryName}/range/count", handler::countPriceRange)
+                        .GET("/lowest-price/stream", handler::streamLowestPrices)
+                        .POST("/brand", handler::createBrand)
+                        .POST("/product", handler::createProduct)
+                        .POST("/batch", handler::applyBatch)
+                        .POST("/import", contentType(MediaType.APPLICATION_NDJSON), handler::importNdjson)
+                        .POST("/import", contentType(MediaType.parseMediaType("text/csv")), handler::importCsv)
+                        .PUT("/brand/{brandName}", handler::updateProduct)
+                        .DELETE("/brand/{brandName}", handler::deleteBrand)
+                        .DELETE("/brand/{brandName}/category/{categoryName}", handler::deleteCategory))
+                .onError(ProductException.class, handler::productError)
+                .onError(BindException.class, handler::bindError)
+                // 핸들러에서 바로 던진 예외(잘못된 카테고리 이름 등)도 onError가 처리하도록 Mono 오류로 바꾼다.
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)))
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package me.saechimdaeki.sinsa.product.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class BatchOperation {
+
+    public enum Type {
+        // 상품 추가, 이미 있으면 덮어쓴다.
+        ADD,
+        // 기존 상품 가격 수정
+        UPDATE,
+        // 기존 상품 삭제
+        DELETE
+    }
+
+    private Type type;
+    private String brandName;
+    private Category category;
+    // DELETE에서는 사용하지 않는다.
+    private Long price;
+}
@@ -0,0 +1,32 @@
+package me.saechimdaeki.sinsa.product.domain;
+
+import java.security.SecureRandom;
+
+// 프로세스가 시작될 때마다 새로 정하는 id.
+// 카탈로그 버전은 재시작하면 0부터 다시 세고 노드마다 따로 세므로, 클라이언트에 건네는 버전(ETag 등)에는 이 값을 함께 넣어
+// 다른 프로세스의 같은 번호 버전과 구분한다.
+public final class CatalogEpoch {
+
+    public static final String CURRENT = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+
+    private CatalogEpoch() {
+    }
+
+    // 클라이언트에 건네는 "epoch:version" 형식의 버전 토큰
+    public static String token(long version) {
+        return CURRENT + ':' + version;
+    }
+
+    // 이 프로세스가 만든 토큰이면 버전을, 다른 프로세스의 토큰이거나 형식이 맞지 않으면 -1을 반환한다.
+    public static long versionOf(String token) {
+        final int separator = token.indexOf(':');
+        if (separator < 0 || !CURRENT.equals(token.substring(0, separator))) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(token.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
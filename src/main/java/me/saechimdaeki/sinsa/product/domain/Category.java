@@ -26,6 +26,8 @@ public enum Category {
 
     private final String categoryName;
 
+    // 카테고리가 8개이므로 브랜드가 가진 카테고리를 8비트 마스크로 표현한다.
+    public static final int ALL_CATEGORIES_MASK = (1 << values().length) - 1;
 
     private static final Map<String, Category> CATEGORY_MAP = Collections.unmodifiableMap(
             Stream.of(values()).collect(Collectors.toMap(m -> m.name().toLowerCase(), Function.identity()))
@@ -42,4 +44,8 @@ public enum Category {
         return category;
     }
 
+    public int mask() {
+        return 1 << ordinal();
+    }
+
 }
@@ -0,0 +1,19 @@
+package me.saechimdaeki.sinsa.product.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CategoryPriceRange {
+    private Category category;
+    // 최저가, 최고가가 같은 브랜드가 여러개일 수 있으므로 동률인 상품을 모두 담는다.
+    private List<Product> lowestProducts;
+    private List<Product> highestProducts;
+
+    public boolean isEmpty() {
+        return lowestProducts.isEmpty();
+    }
+}
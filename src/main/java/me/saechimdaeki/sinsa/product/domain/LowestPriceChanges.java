@@ -0,0 +1,26 @@
+package me.saechimdaeki.sinsa.product.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 어떤 버전 이후로 바뀐 카테고리 최저가와 최저 총액 브랜드. version 시점의 상태를 담는다.
+@Getter
+@AllArgsConstructor
+public class LowestPriceChanges {
+    private long version;
+    // 최저가 브랜드나 가격이 바뀐 카테고리의 현재 최저가 상품
+    private List<Product> changedProducts;
+    // 상품이 모두 없어진 카테고리
+    private List<Category> emptiedCategories;
+    // 모든 카테고리 최저가의 현재 합계
+    private long lowestTotalPrice;
+    private boolean lowestBrandChanged;
+    // 모든 카테고리 상품을 가진 브랜드가 없으면 null
+    private Brand lowestBrand;
+
+    public boolean isCategoryChanged() {
+        return !changedProducts.isEmpty() || !emptiedCategories.isEmpty();
+    }
+}
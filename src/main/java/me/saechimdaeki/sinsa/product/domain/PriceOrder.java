@@ -0,0 +1,23 @@
+package me.saechimdaeki.sinsa.product.domain;
+
+import me.saechimdaeki.sinsa.product.exception.ErrorCode;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import org.springframework.util.StringUtils;
+
+// 카테고리 내 브랜드 순위를 매기는 가격 순서
+public enum PriceOrder {
+    LOWEST,
+    HIGHEST;
+
+    public static PriceOrder fromName(String name) {
+        if (!StringUtils.hasText(name)) {
+            throw new ProductException(ErrorCode.INVALID_PRICE_ORDER);
+        }
+        for (PriceOrder order : values()) {
+            if (order.name().equalsIgnoreCase(name)) {
+                return order;
+            }
+        }
+        throw new ProductException(ErrorCode.INVALID_PRICE_ORDER);
+    }
+}
@@ -0,0 +1,14 @@
+package me.saechimdaeki.sinsa.product.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// 가격 구간 조회의 한 페이지. totalCount는 페이지와 같은 시점에 센 구간 전체의 상품 수이다.
+@Getter
+@AllArgsConstructor
+public class PriceRangePage {
+    private List<Product> products;
+    private long totalCount;
+}
@@ -0,0 +1,35 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
+import me.saechimdaeki.sinsa.product.domain.Category;
+
+@AllArgsConstructor
+@Getter
+public class BatchOperationRequest {
+    @NotNull(message = "type is required")
+    private BatchOperation.Type type;
+
+    @NotEmpty(message = "brand name is required")
+    private String brandName;
+
+    @NotEmpty(message = "category is required")
+    private String category;
+
+    @Positive(message = "price must greater than 0")
+    private Long price;
+
+    @AssertTrue(message = "price is required")
+    private boolean isPriceGiven() {
+        return type == BatchOperation.Type.DELETE || price != null;
+    }
+
+    public BatchOperation toDomain() {
+        return new BatchOperation(type, brandName, Category.fromName(category), price);
+    }
+}
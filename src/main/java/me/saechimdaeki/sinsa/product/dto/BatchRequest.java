@@ -0,0 +1,29 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
+
+import java.util.List;
+
+@Getter
+public class BatchRequest {
+    @NotEmpty(message = "operations are required")
+    @Size(max = 10000, message = "at most 10000 operations per batch")
+    @Valid
+    private List<BatchOperationRequest> operations;
+
+    // 필드가 하나뿐이라 Jackson이 위임 생성자로 해석하지 않도록 프로퍼티 기반 생성자로 지정한다.
+    @JsonCreator
+    public BatchRequest(@JsonProperty("operations") List<BatchOperationRequest> operations) {
+        this.operations = operations;
+    }
+
+    public List<BatchOperation> toDomain() {
+        return operations.stream().map(BatchOperationRequest::toDomain).toList();
+    }
+}
@@ -0,0 +1,10 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BatchResponse {
+    private int applied;
+}
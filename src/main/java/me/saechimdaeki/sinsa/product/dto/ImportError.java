@@ -0,0 +1,11 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportError {
+    private long line;
+    private String reason;
+}
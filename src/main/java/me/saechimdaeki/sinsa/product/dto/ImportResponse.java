@@ -0,0 +1,16 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportResponse {
+    private long applied;
+    private long rejected;
+    private int batches;
+    // 거절된 행이 많아도 응답 크기가 일정하도록 앞쪽 일부만 담는다.
+    private List<ImportError> errors;
+}
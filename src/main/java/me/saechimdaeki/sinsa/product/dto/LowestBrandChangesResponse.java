@@ -0,0 +1,19 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class LowestBrandChangesResponse {
+    // 다음 요청의 sinceVersion으로 사용할 버전 토큰 ("epoch:version")
+    private String version;
+
+    private String brand;
+
+    private List<CategoryPriceResponse> categories;
+
+    private Long totalPrice;
+}
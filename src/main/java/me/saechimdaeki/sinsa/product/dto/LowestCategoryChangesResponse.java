@@ -0,0 +1,18 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class LowestCategoryChangesResponse {
+    // 다음 요청의 sinceVersion으로 사용할 버전 토큰 ("epoch:version")
+    private String version;
+    // 최저가가 바뀐 카테고리의 현재 최저가
+    private List<ProductResponse> items;
+    // 상품이 모두 없어진 카테고리
+    private List<String> removedCategories;
+    private Long totalPrice;
+}
@@ -0,0 +1,17 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+// 최저가 변경 스트림의 이벤트 본문.
+// category 이벤트는 카테고리 최저가 상품, brand 이벤트는 최저 총액 브랜드와 총액을 담으며
+// 상품(브랜드)이 없어지면 brandName, price가 null이다.
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class LowestPriceChangeResponse {
+    private String category;
+    private String brandName;
+    private Long price;
+}
@@ -0,0 +1,13 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PriceRangeCountResponse {
+    private String category;
+    private Long minPrice;
+    private Long maxPrice;
+    private Long count;
+}
@@ -0,0 +1,18 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PriceRangeResponse {
+    private String category;
+    private Long minPrice;
+    private Long maxPrice;
+    private Integer page;
+    private Integer size;
+    private Long totalCount;
+    private List<BrandPriceResponse> brands;
+}
@@ -1,6 +1,7 @@
 package me.saechimdaeki.sinsa.product.dto;
 
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -16,6 +17,7 @@ public class ProductRequest {
     @NotEmpty(message = "category is required")
     private String category;
 
+    @NotNull(message = "price is required")
     @Positive(message = "price must greater than 0")
     private Long price;
 
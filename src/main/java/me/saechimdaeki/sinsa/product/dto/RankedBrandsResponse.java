@@ -0,0 +1,14 @@
+package me.saechimdaeki.sinsa.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class RankedBrandsResponse {
+    private String category;
+    private String order;
+    private List<BrandPriceResponse> brands;
+}
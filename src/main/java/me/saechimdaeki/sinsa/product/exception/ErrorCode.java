@@ -16,6 +16,11 @@ public enum ErrorCode {
     NO_PRODUCTS_IN_CATEGORY(HttpStatus.NOT_FOUND, "P007", "No Products in Category check Data"),
     DATA_READ_ERROR(HttpStatus.CONFLICT, "P008", "Data read error please try again"),
     DATA_SAVE_ERROR(HttpStatus.CONFLICT, "P009", "Data save error please try again"),
+    JOURNAL_WRITE_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "P010", "Failed to persist change please try again"),
+    INVALID_PRICE_ORDER(HttpStatus.BAD_REQUEST, "P011", "Invalid order value use lowest or highest"),
+    INVALID_LIMIT(HttpStatus.BAD_REQUEST, "P012", "Invalid limit value"),
+    INVALID_PRICE_RANGE(HttpStatus.BAD_REQUEST, "P013", "Invalid price range check min and max price"),
+    INVALID_PAGE(HttpStatus.BAD_REQUEST, "P014", "Invalid page value"),
     ;
 
     private final HttpStatus httpStatus;
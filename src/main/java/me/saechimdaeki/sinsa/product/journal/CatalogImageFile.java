@@ -0,0 +1,130 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import me.saechimdaeki.sinsa.product.repository.CatalogImage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// 카탈로그 이미지를 담는 바이너리 스냅샷 파일.
+// [magic][format][checkpoint][브랜드 수][이름 사전 바이트 수]
+// [이름 사전: (길이 short, UTF-8) * 브랜드 수][카테고리 마스크: byte * 브랜드 수][가격: 마스크에 있는 카테고리만 long, ordinal 순서]
+// 브랜드는 사전의 순번으로 식별하므로 행에는 이름을 다시 쓰지 않는다.
+public final class CatalogImageFile {
+
+    private static final int MAGIC = 0x534E5341;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES + Integer.BYTES * 2;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int MAX_NAME_LENGTH = 0xFFFF;
+
+    private CatalogImageFile() {
+    }
+
+    // 임시 파일에 모두 쓴 뒤 원자적으로 교체하므로, 쓰는 도중 장애가 나도 이전 스냅샷은 남는다.
+    public static void write(Path path, CatalogImage image) throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final int brandCount = image.getBrandCount();
+        final byte[][] names = new byte[brandCount][];
+        int dictionarySize = 0;
+        for (int i = 0; i < brandCount; i++) {
+            names[i] = image.getBrandNames()[i].getBytes(StandardCharsets.UTF_8);
+            if (names[i].length > MAX_NAME_LENGTH) {
+                throw new IOException("Brand name is too long for a catalog snapshot: " + image.getBrandNames()[i]);
+            }
+            dictionarySize += Short.BYTES + names[i].length;
+        }
+
+        final Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(FORMAT).putLong(image.getCheckpoint()).putInt(brandCount).putInt(dictionarySize);
+            for (byte[] name : names) {
+                ensureRemaining(channel, buffer, Short.BYTES + name.length);
+                buffer.putShort((short) name.length).put(name);
+            }
+            final byte[] masks = image.getCategoryMasks();
+            for (byte mask : masks) {
+                ensureRemaining(channel, buffer, Byte.BYTES);
+                buffer.put(mask);
+            }
+            final long[] prices = image.getPrices();
+            for (int i = 0; i < brandCount; i++) {
+                final int mask = masks[i] & 0xFF;
+                ensureRemaining(channel, buffer, Long.BYTES * CatalogImage.CATEGORY_COUNT);
+                for (int ordinal = 0; ordinal < CatalogImage.CATEGORY_COUNT; ordinal++) {
+                    if ((mask & (1 << ordinal)) != 0) {
+                        buffer.putLong(prices[i * CatalogImage.CATEGORY_COUNT + ordinal]);
+                    }
+                }
+            }
+            flush(channel, buffer);
+            channel.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 파일 전체를 매핑하여 처음부터 끝까지 한 번 순차로 읽는다.
+    public static CatalogImage read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a catalog snapshot: " + path);
+            }
+            final int format = buffer.getInt();
+            if (format != FORMAT) {
+                throw new IOException("Unsupported catalog snapshot format " + format + ": " + path);
+            }
+            final long checkpoint = buffer.getLong();
+            final int brandCount = buffer.getInt();
+            buffer.getInt();
+
+            final String[] brandNames = new String[brandCount];
+            byte[] name = new byte[64];
+            for (int i = 0; i < brandCount; i++) {
+                final int length = buffer.getShort() & 0xFFFF;
+                if (name.length < length) {
+                    name = new byte[length];
+                }
+                buffer.get(name, 0, length);
+                brandNames[i] = new String(name, 0, length, StandardCharsets.UTF_8);
+            }
+            final byte[] masks = new byte[brandCount];
+            buffer.get(masks);
+            final long[] prices = new long[brandCount * CatalogImage.CATEGORY_COUNT];
+            for (int i = 0; i < brandCount; i++) {
+                final int mask = masks[i] & 0xFF;
+                for (int ordinal = 0; ordinal < CatalogImage.CATEGORY_COUNT; ordinal++) {
+                    if ((mask & (1 << ordinal)) != 0) {
+                        prices[i * CatalogImage.CATEGORY_COUNT + ordinal] = buffer.getLong();
+                    }
+                }
+            }
+            return new CatalogImage(brandNames, masks, prices, checkpoint);
+        }
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int size) throws IOException {
+        if (buffer.remaining() < size) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
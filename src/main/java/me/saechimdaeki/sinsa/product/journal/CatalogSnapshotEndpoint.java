@@ -0,0 +1,27 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import lombok.RequiredArgsConstructor;
+import me.saechimdaeki.sinsa.product.repository.CatalogImage;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+
+// POST /actuator/catalogsnapshot : 현재 카탈로그로 바이너리 스냅샷을 새로 쓴다.
+@Component
+@Endpoint(id = "catalogsnapshot")
+@ConditionalOnProperty(name = "sinsa.snapshot.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class CatalogSnapshotEndpoint {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    @WriteOperation
+    public Map<String, Long> writeSnapshot() throws IOException {
+        final CatalogImage image = catalogSnapshotService.write();
+        return Map.of("brands", (long) image.getBrandCount(), "checkpoint", image.getCheckpoint());
+    }
+}
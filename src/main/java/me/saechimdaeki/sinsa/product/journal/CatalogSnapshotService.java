@@ -0,0 +1,69 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.saechimdaeki.sinsa.product.repository.CatalogImage;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// 바이너리 카탈로그 스냅샷을 쓰고 읽는다. 저널을 함께 사용하면 스냅샷에 저널 위치를 기록하여,
+// 시작할 때 스냅샷을 읽은 뒤 그 위치 이후의 저널만 다시 적용한다.
+@Component
+@ConditionalOnProperty(name = "sinsa.snapshot.enabled", havingValue = "true")
+@Slf4j
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepository;
+
+    private final ObjectProvider<ProductJournal> productJournal;
+
+    private final Path path;
+
+    private final boolean writeOnShutdown;
+
+    public CatalogSnapshotService(ProductRepository productRepository,
+                                  ObjectProvider<ProductJournal> productJournal,
+                                  @Value("${sinsa.snapshot.path:data/catalog.snapshot}") String path,
+                                  @Value("${sinsa.snapshot.write-on-shutdown:true}") boolean writeOnShutdown) {
+        this.productRepository = productRepository;
+        this.productJournal = productJournal;
+        this.path = Path.of(path);
+        this.writeOnShutdown = writeOnShutdown;
+    }
+
+    public Optional<CatalogImage> load() throws IOException {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        final long startedAt = System.nanoTime();
+        final CatalogImage image = CatalogImageFile.read(path);
+        log.info("Loaded catalog snapshot {} ({} brands) in {} ms",
+                path, image.getBrandCount(), (System.nanoTime() - startedAt) / 1_000_000);
+        return Optional.of(image);
+    }
+
+    // 쓰기는 저장소가 이미지를 복사하는 동안만 막히고, 파일 기록은 락 밖에서 한다.
+    public CatalogImage write() throws IOException {
+        final ProductJournal journal = productJournal.getIfAvailable();
+        final CatalogImage image = productRepository.exportImage(journal == null ? () -> 0L : journal::position);
+        CatalogImageFile.write(path, image);
+        log.info("Wrote catalog snapshot {} ({} brands, journal checkpoint {})",
+                path, image.getBrandCount(), image.getCheckpoint());
+        return image;
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() throws IOException {
+        if (writeOnShutdown) {
+            write();
+        }
+    }
+}
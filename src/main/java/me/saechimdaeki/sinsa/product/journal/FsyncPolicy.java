@@ -0,0 +1,14 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+public enum FsyncPolicy {
+    // 쓰기마다 fsync 후 응답한다.
+    ALWAYS,
+    // 주기적으로 모아서 fsync하고, 쓰기는 자신의 기록이 fsync될 때까지 기다린 뒤 응답한다.
+    GROUP,
+    // fsync하지 않고 OS가 디스크에 내려쓰도록 맡긴다. 장애 시 최근 변경이 유실될 수 있다.
+    OS;
+
+    public static FsyncPolicy from(String value) {
+        return valueOf(value.strip().toUpperCase());
+    }
+}
@@ -0,0 +1,71 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import lombok.RequiredArgsConstructor;
+import me.saechimdaeki.sinsa.common.annotation.WriteLock;
+import me.saechimdaeki.sinsa.common.config.LockAspect;
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+
+import java.util.List;
+
+// 저장소의 쓰기 메서드를 실행하기 전에 그 변경을 저널에 먼저 기록한다(write-ahead).
+// 기록이 실패하면 변경을 실행하지 않으므로, JOURNAL_WRITE_ERROR를 받은 변경은 메모리에도 반영되지 않는다.
+// 변경이 예외로 실패하면 기록한 위치를 가리키는 Abort 레코드를 덧붙여 재적용할 때 건너뛰게 한다.
+// LockAspect 안쪽에서 실행되므로 같은 브랜드의 변경은 반영된 순서대로 기록되고,
+// 스냅샷 checkpoint(카탈로그 전체 읽기 락)는 변경과 그 Abort 레코드 사이에 들어오지 않는다.
+@Aspect
+@Order(LockAspect.ORDER + 1)
+@RequiredArgsConstructor
+public class JournalAspect {
+
+    private final ProductJournal journal;
+
+    // importImage는 스냅샷으로 시작할 때만 사용하며, 스냅샷의 checkpoint까지는 이미 저널에 있으므로 기록하지 않는다.
+    @Around("@annotation(writeLock) && within(me.saechimdaeki.sinsa.product.repository.ProductRepository+)")
+    public Object aroundWrite(ProceedingJoinPoint joinPoint, WriteLock writeLock) throws Throwable {
+        if (journal.isReplaying() || "importImage".equals(joinPoint.getSignature().getName())) {
+            return joinPoint.proceed();
+        }
+        final long position = journal.append(toEntry(joinPoint.getSignature().getName(), joinPoint.getArgs()));
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            try {
+                journal.append(new JournalEntry.Abort(position));
+            } catch (RuntimeException abortFailure) {
+                // Abort를 남기지 못해도 재적용할 때 같은 변경이 다시 실패하여 건너뛰어진다.
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JournalEntry toEntry(String methodName, Object[] args) {
+        return switch (methodName) {
+            case "addBrand" -> {
+                final Brand brand = (Brand) args[0];
+                yield new JournalEntry.AddBrand(brand.getBrandName(), List.copyOf(brand.getProducts()));
+            }
+            case "addProduct" -> new JournalEntry.AddProduct((Product) args[0]);
+            case "updateProduct" -> {
+                final Product product = (Product) args[1];
+                yield new JournalEntry.UpdateProduct(new Product((String) args[0], product.getCategory(), product.getPrice()));
+            }
+            case "deleteProduct" -> new JournalEntry.DeleteProduct((String) args[0], (Category) args[1]);
+            case "deleteBrand" -> new JournalEntry.DeleteBrand((String) args[0]);
+            case "clearAllData" -> new JournalEntry.ClearAll();
+            case "applyBatch" -> new JournalEntry.Batch(List.copyOf((List<BatchOperation>) args[0]));
+            case "addProducts" -> new JournalEntry.Batch(((List<Product>) args[0]).stream()
+                    .map(p -> new BatchOperation(BatchOperation.Type.ADD, p.getBrandName(), p.getCategory(), p.getPrice()))
+                    .toList());
+            default -> throw new IllegalStateException("No journal entry for ProductRepository." + methodName);
+        };
+    }
+}
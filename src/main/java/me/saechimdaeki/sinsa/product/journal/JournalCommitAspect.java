@@ -0,0 +1,28 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import lombok.RequiredArgsConstructor;
+import me.saechimdaeki.sinsa.common.annotation.WriteLock;
+import me.saechimdaeki.sinsa.common.config.LockAspect;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+
+// LockAspect 바깥에서 실행되어, 락을 놓은 뒤 기록이 fsync될 때까지 기다린다.
+// group commit을 기다리는 동안 다른 쓰기와 읽기가 락을 사용할 수 있다.
+@Aspect
+@Order(LockAspect.ORDER - 1)
+@RequiredArgsConstructor
+public class JournalCommitAspect {
+
+    private final ProductJournal journal;
+
+    @Around("@annotation(writeLock) && within(me.saechimdaeki.sinsa.product.repository.ProductRepository+)")
+    public Object aroundWrite(ProceedingJoinPoint joinPoint, WriteLock writeLock) throws Throwable {
+        try {
+            return joinPoint.proceed();
+        } finally {
+            journal.awaitDurable();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "sinsa.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Bean
+    public ProductJournal productJournal(@Value("${sinsa.journal.path:data/catalog.journal}") String path,
+                                         @Value("${sinsa.journal.fsync:group}") String fsync,
+                                         @Value("${sinsa.journal.group-commit-interval-ms:5}") long groupCommitIntervalMillis) {
+        return new ProductJournal(Path.of(path), FsyncPolicy.from(fsync), groupCommitIntervalMillis);
+    }
+
+    @Bean
+    public JournalAspect journalAspect(ProductJournal productJournal) {
+        return new JournalAspect(productJournal);
+    }
+
+    @Bean
+    public JournalCommitAspect journalCommitAspect(ProductJournal productJournal) {
+        return new JournalCommitAspect(productJournal);
+    }
+}
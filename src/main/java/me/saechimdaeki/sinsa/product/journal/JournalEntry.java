@@ -0,0 +1,206 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// 저널에 기록하는 저장소 변경 하나. 첫 바이트가 종류이고, 문자열은 UTF, 카테고리는 ordinal 1바이트로 기록한다.
+public sealed interface JournalEntry {
+
+    Category[] CATEGORIES = Category.values();
+
+    void applyTo(ProductRepository repository);
+
+    void write(DataOutput out) throws IOException;
+
+    static JournalEntry read(DataInput in) throws IOException {
+        final byte type = in.readByte();
+        return switch (type) {
+            case AddBrand.TYPE -> new AddBrand(in.readUTF(), readProducts(in));
+            case AddProduct.TYPE -> new AddProduct(readProduct(in));
+            case UpdateProduct.TYPE -> new UpdateProduct(readProduct(in));
+            case DeleteProduct.TYPE -> new DeleteProduct(in.readUTF(), CATEGORIES[in.readByte()]);
+            case DeleteBrand.TYPE -> new DeleteBrand(in.readUTF());
+            case ClearAll.TYPE -> new ClearAll();
+            case Batch.TYPE -> new Batch(readOperations(in));
+            case Abort.TYPE -> new Abort(in.readLong());
+            default -> throw new IOException("Unknown journal entry type: " + type);
+        };
+    }
+
+    record AddBrand(String brandName, List<Product> products) implements JournalEntry {
+        static final byte TYPE = 1;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+            repository.addBrand(new Brand(brandName, products));
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+            out.writeUTF(brandName);
+            writeProducts(out, products);
+        }
+    }
+
+    record AddProduct(Product product) implements JournalEntry {
+        static final byte TYPE = 2;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+            repository.addProduct(product);
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+            writeProduct(out, product);
+        }
+    }
+
+    record UpdateProduct(Product product) implements JournalEntry {
+        static final byte TYPE = 3;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+            repository.updateProduct(product.getBrandName(), product);
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+            writeProduct(out, product);
+        }
+    }
+
+    record DeleteProduct(String brandName, Category category) implements JournalEntry {
+        static final byte TYPE = 4;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+            repository.deleteProduct(brandName, category);
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+            out.writeUTF(brandName);
+            out.writeByte(category.ordinal());
+        }
+    }
+
+    record DeleteBrand(String brandName) implements JournalEntry {
+        static final byte TYPE = 5;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+            repository.deleteBrand(brandName);
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+            out.writeUTF(brandName);
+        }
+    }
+
+    record ClearAll() implements JournalEntry {
+        static final byte TYPE = 6;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+            repository.clearAllData();
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+        }
+    }
+
+    // applyBatch와 addProducts(모든 연산이 ADD인 배치)를 한 번에 적용되는 단위로 기록한다.
+    record Batch(List<BatchOperation> operations) implements JournalEntry {
+        static final byte TYPE = 7;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+            repository.applyBatch(operations);
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+            out.writeInt(operations.size());
+            for (BatchOperation operation : operations) {
+                out.writeByte(operation.getType().ordinal());
+                out.writeUTF(operation.getBrandName());
+                out.writeByte(operation.getCategory().ordinal());
+                out.writeLong(operation.getPrice() == null ? 0L : operation.getPrice());
+            }
+        }
+    }
+
+    // position에 기록된 변경이 저장소에서 예외로 실패했음을 나타낸다. ProductJournal.replay가 두 레코드를 모두 건너뛴다.
+    record Abort(long position) implements JournalEntry {
+        static final byte TYPE = 8;
+
+        @Override
+        public void applyTo(ProductRepository repository) {
+        }
+
+        @Override
+        public void write(DataOutput out) throws IOException {
+            out.writeByte(TYPE);
+            out.writeLong(position);
+        }
+    }
+
+    private static void writeProduct(DataOutput out, Product product) throws IOException {
+        out.writeUTF(product.getBrandName());
+        out.writeByte(product.getCategory().ordinal());
+        out.writeLong(product.getPrice());
+    }
+
+    private static Product readProduct(DataInput in) throws IOException {
+        return new Product(in.readUTF(), CATEGORIES[in.readByte()], in.readLong());
+    }
+
+    private static void writeProducts(DataOutput out, List<Product> products) throws IOException {
+        out.writeInt(products.size());
+        for (Product product : products) {
+            writeProduct(out, product);
+        }
+    }
+
+    private static List<Product> readProducts(DataInput in) throws IOException {
+        final int size = in.readInt();
+        final List<Product> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(readProduct(in));
+        }
+        return products;
+    }
+
+    private static List<BatchOperation> readOperations(DataInput in) throws IOException {
+        final BatchOperation.Type[] types = BatchOperation.Type.values();
+        final int size = in.readInt();
+        final List<BatchOperation> operations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final BatchOperation.Type type = types[in.readByte()];
+            final String brandName = in.readUTF();
+            final Category category = CATEGORIES[in.readByte()];
+            final long price = in.readLong();
+            operations.add(new BatchOperation(type, brandName, category, type == BatchOperation.Type.DELETE ? null : price));
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,325 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.saechimdaeki.sinsa.product.exception.ErrorCode;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// 저장소 변경을 순서대로 덧붙이는 write-ahead 저널. 변경은 저장소에 반영하기 전에 기록하고(JournalAspect),
+// 반영이 실패하면 그 위치를 가리키는 Abort 레코드를 덧붙인다.
+// 레코드는 [payload 길이 int][payload CRC32 int][payload] 형식이며, 시작할 때 처음부터 다시 적용한다.
+// 장애로 마지막 레코드가 잘려 있으면 마지막 정상 레코드 뒤를 잘라내고 이어서 기록한다.
+@Slf4j
+public class ProductJournal {
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path path;
+
+    private final FsyncPolicy fsyncPolicy;
+
+    private final long groupCommitIntervalMillis;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final Condition durableCondition = appendLock.newCondition();
+
+    // GROUP 정책에서 쓰기 스레드가 락을 놓은 뒤 기다릴 자신의 마지막 기록 위치
+    private final ThreadLocal<Long> pendingPosition = new ThreadLocal<>();
+
+    private FileChannel channel;
+
+    private ScheduledExecutorService flusher;
+
+    // 아래 위치는 appendLock으로 보호한다.
+    private long appendedPosition;
+    private long durablePosition;
+    // fsync가 실패했을 때 그 fsync가 내리려던 위치. 이 위치까지 기다리던 쓰기는 실패로 끝난다.
+    private long failedPosition;
+
+    private volatile boolean replaying;
+
+    public ProductJournal(Path path, FsyncPolicy fsyncPolicy, long groupCommitIntervalMillis) {
+        this.path = path;
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitIntervalMillis = groupCommitIntervalMillis;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        appendedPosition = channel.size();
+        durablePosition = appendedPosition;
+        channel.position(appendedPosition);
+        if (fsyncPolicy == FsyncPolicy.GROUP) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "journal-group-commit");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::groupCommit,
+                    groupCommitIntervalMillis, groupCommitIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+        log.info("Opened journal {} ({} bytes, fsync: {})", path, appendedPosition, fsyncPolicy);
+    }
+
+    // 종료 직전에 기록하고 group commit을 기다리던 쓰기도 마지막 fsync 결과로 깨운다.
+    @PreDestroy
+    public void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        appendLock.lock();
+        try {
+            if (channel != null && channel.isOpen()) {
+                try {
+                    force();
+                    durablePosition = appendedPosition;
+                } catch (IOException e) {
+                    failedPosition = appendedPosition;
+                    throw e;
+                } finally {
+                    channel.close();
+                    durableCondition.signalAll();
+                }
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    public long replay(Consumer<JournalEntry> consumer) throws IOException {
+        return replay(0, consumer);
+    }
+
+    // from 위치부터 저널의 레코드를 순서대로 전달하고 적용한 레코드 수를 반환한다.
+    // Abort 레코드가 가리키는 변경은 건너뛰므로, 먼저 저널을 한 번 훑어 Abort된 위치를 모은다.
+    // 재적용 중에는 JournalAspect가 다시 기록하지 않는다.
+    public long replay(long from, Consumer<JournalEntry> consumer) throws IOException {
+        replaying = true;
+        appendLock.lock();
+        try {
+            long position = Math.min(from, channel.size());
+            final Set<Long> aborted = abortedPositions(position);
+            long count = 0;
+            channel.position(position);
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+            byte[] payload;
+            while ((payload = readPayload(in)) != null) {
+                final JournalEntry entry = JournalEntry.read(new DataInputStream(new ByteArrayInputStream(payload)));
+                if (!(entry instanceof JournalEntry.Abort) && !aborted.contains(position)) {
+                    apply(consumer, entry);
+                    count++;
+                }
+                position += HEADER_SIZE + payload.length;
+            }
+            truncateTo(position);
+            log.info("Replayed {} journal entries from {}", count, path);
+            return count;
+        } finally {
+            appendLock.unlock();
+            replaying = false;
+        }
+    }
+
+    // 지금까지 기록한 위치. 바이너리 스냅샷의 checkpoint로 사용한다.
+    public long position() {
+        appendLock.lock();
+        try {
+            return appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // 락 안에서 호출되어 변경 순서대로 기록된다. ALWAYS 정책이면 fsync까지 마친 뒤 반환한다.
+    // 기록한 레코드의 시작 위치를 반환하며, 변경이 실패하면 이 위치로 Abort 레코드를 만든다.
+    public long append(JournalEntry entry) {
+        final ByteBuffer record = encode(entry);
+        appendLock.lock();
+        try {
+            final long position = appendedPosition;
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            appendedPosition = channel.position();
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                force();
+                durablePosition = appendedPosition;
+            }
+            pendingPosition.set(appendedPosition);
+            return position;
+        } catch (IOException e) {
+            log.error("Failed to append journal entry {}", entry, e);
+            throw new ProductException(ErrorCode.JOURNAL_WRITE_ERROR);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // 현재 스레드가 마지막으로 기록한 위치가 디스크에 내려갈 때까지 기다린다. GROUP 정책에서만 기다린다.
+    // 그 위치를 내리려던 fsync가 실패하면 JOURNAL_WRITE_ERROR로 끝난다. 변경은 메모리에 반영되었지만 유실될 수 있다.
+    public void awaitDurable() {
+        final Long position = pendingPosition.get();
+        if (position == null) {
+            return;
+        }
+        pendingPosition.remove();
+        if (fsyncPolicy != FsyncPolicy.GROUP) {
+            return;
+        }
+        appendLock.lock();
+        try {
+            while (durablePosition < position) {
+                if (failedPosition >= position) {
+                    throw new ProductException(ErrorCode.JOURNAL_WRITE_ERROR);
+                }
+                durableCondition.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductException(ErrorCode.JOURNAL_WRITE_ERROR);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // fsync하는 동안에도 기록은 계속되도록 fsync는 락 밖에서 한다.
+    // 실패한 fsync 뒤의 재시도는 이미 버려진 페이지를 내렸다고 답할 수 있으므로, 실패한 위치까지의 쓰기는 재시도를 기다리지 않고 실패시킨다.
+    private void groupCommit() {
+        final long target;
+        appendLock.lock();
+        try {
+            if (durablePosition >= appendedPosition) {
+                return;
+            }
+            target = appendedPosition;
+        } finally {
+            appendLock.unlock();
+        }
+        boolean forced = false;
+        try {
+            force();
+            forced = true;
+        } catch (IOException e) {
+            log.error("Failed to fsync journal {}", path, e);
+        }
+        appendLock.lock();
+        try {
+            if (forced) {
+                durablePosition = Math.max(durablePosition, target);
+            } else {
+                failedPosition = Math.max(failedPosition, target);
+            }
+            durableCondition.signalAll();
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // 테스트에서 fsync 실패를 흉내낼 수 있도록 분리한다.
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    private ByteBuffer encode(JournalEntry entry) {
+        final ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+        try {
+            entry.write(new DataOutputStream(payload));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final byte[] bytes = payload.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return ByteBuffer.allocate(HEADER_SIZE + bytes.length)
+                .putInt(bytes.length)
+                .putInt((int) crc.getValue())
+                .put(bytes)
+                .flip();
+    }
+
+    private Set<Long> abortedPositions(long from) throws IOException {
+        final Set<Long> aborted = new HashSet<>();
+        channel.position(from);
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        byte[] payload;
+        while ((payload = readPayload(in)) != null) {
+            if (payload[0] == JournalEntry.Abort.TYPE) {
+                final JournalEntry.Abort abort =
+                        (JournalEntry.Abort) JournalEntry.read(new DataInputStream(new ByteArrayInputStream(payload)));
+                aborted.add(abort.position());
+            }
+        }
+        return aborted;
+    }
+
+    // 변경이 실패한 뒤 Abort 레코드를 기록하기 전에 종료되었다면 같은 변경이 다시 실패하므로 건너뛴다.
+    private void apply(Consumer<JournalEntry> consumer, JournalEntry entry) {
+        try {
+            consumer.accept(entry);
+        } catch (ProductException e) {
+            log.warn("Skipping journal entry {} that fails to apply: {}", entry, e.getMessage());
+        }
+    }
+
+    // 잘리거나 손상된 레코드를 만나면 null을 반환한다.
+    private byte[] readPayload(DataInputStream in) throws IOException {
+        final byte[] payload;
+        final int checksum;
+        try {
+            final int length = in.readInt();
+            checksum = in.readInt();
+            if (length <= 0 || length > channel.size()) {
+                return null;
+            }
+            payload = new byte[length];
+            in.readFully(payload);
+        } catch (EOFException e) {
+            return null;
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return payload;
+    }
+
+    private void truncateTo(long position) throws IOException {
+        if (channel.size() > position) {
+            log.warn("Truncating incomplete or corrupted journal tail of {} from {} to {} bytes", path, channel.size(), position);
+            channel.truncate(position);
+            channel.force(false);
+        }
+        channel.position(position);
+        appendedPosition = position;
+        durablePosition = position;
+    }
+}
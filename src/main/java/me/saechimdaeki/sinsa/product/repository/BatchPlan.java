@@ -0,0 +1,79 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.exception.ErrorCode;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+
+import java.util.*;
+
+// 배치 연산을 순서대로 검증하면서 브랜드, 카테고리별 최종 상태 하나로 합친다.
+// 앞선 연산의 결과를 반영해 검증하고, 실패하면 저장소에 반영하기 전에 예외를 던지므로 배치 전체가 반영되지 않는다.
+// 같은 상품을 여러 번 바꾸더라도 인덱스는 최종 상태로 한 번만 갱신된다.
+final class BatchPlan {
+
+    interface CatalogView {
+        boolean hasBrand(String brandName);
+
+        boolean hasProduct(String brandName, Category category);
+    }
+
+    // 브랜드 -> 카테고리 -> 최종 가격. 값이 null이면 삭제
+    private final Map<String, Map<Category, Long>> changes = new LinkedHashMap<>();
+
+    private final Set<String> addedBrands = new HashSet<>();
+
+    private int categoryMask;
+
+    private BatchPlan() {
+    }
+
+    static BatchPlan of(List<BatchOperation> operations, CatalogView catalog) {
+        final BatchPlan plan = new BatchPlan();
+        for (BatchOperation operation : operations) {
+            final String brandName = operation.getBrandName();
+            final Category category = operation.getCategory();
+            switch (operation.getType()) {
+                case ADD -> {
+                    plan.addedBrands.add(brandName);
+                    plan.put(brandName, category, operation.getPrice());
+                }
+                case UPDATE -> {
+                    plan.requireProduct(catalog, brandName, category);
+                    plan.put(brandName, category, operation.getPrice());
+                }
+                case DELETE -> {
+                    plan.requireProduct(catalog, brandName, category);
+                    plan.put(brandName, category, null);
+                }
+            }
+        }
+        return plan;
+    }
+
+    Map<String, Map<Category, Long>> getChanges() {
+        return changes;
+    }
+
+    int getCategoryMask() {
+        return categoryMask;
+    }
+
+    private void put(String brandName, Category category, Long price) {
+        changes.computeIfAbsent(brandName, key -> new EnumMap<>(Category.class)).put(category, price);
+        categoryMask |= category.mask();
+    }
+
+    private void requireProduct(CatalogView catalog, String brandName, Category category) {
+        if (!addedBrands.contains(brandName) && !catalog.hasBrand(brandName)) {
+            throw new ProductException(ErrorCode.BRAND_NOT_FOUND);
+        }
+        final Map<Category, Long> brandChanges = changes.get(brandName);
+        final boolean exists = brandChanges != null && brandChanges.containsKey(category)
+                ? brandChanges.get(category) != null
+                : catalog.hasProduct(brandName, category);
+        if (!exists) {
+            throw new ProductException(ErrorCode.PRODUCT_NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+// 브랜드별 총액과 보유 카테고리 마스크를 브랜드 id(PriceStore slot) 위치의 배열로 유지하고,
+// 모든 카테고리를 가진 브랜드만 총액 순으로 정렬해 둔다.
+// 서로 다른 브랜드의 쓰기가 동시에 들어올 수 있으므로 내부 읽기/쓰기 락으로 보호한다.
+// 조회는 LockAspect의 전역 읽기 락만 잡고 들어오므로(키가 있는 쓰기와 동시에 실행된다) 읽기 락을 잡는다.
+class BrandTotalIndex {
+
+    private static final Comparator<BrandTotal> TOTAL_PRICE_ORDER = Comparator
+            .comparingLong((BrandTotal brandTotal) -> brandTotal.totalPrice)
+            .thenComparing(brandTotal -> brandTotal.brandName);
+
+    private final IntFunction<String> brandNames;
+
+    private BrandTotal[] brandTotals = new BrandTotal[0];
+
+    private final NavigableSet<BrandTotal> completeBrands = new TreeSet<>(TOTAL_PRICE_ORDER);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Lock readLock = lock.readLock();
+
+    private final Lock writeLock = lock.writeLock();
+
+    BrandTotalIndex(IntFunction<String> brandNames) {
+        this.brandNames = brandNames;
+    }
+
+    void add(int slot, Category category, long price) {
+        writeLock.lock();
+        try {
+            if (slot >= brandTotals.length) {
+                brandTotals = Arrays.copyOf(brandTotals, Math.max(slot + 1, brandTotals.length * 2));
+            }
+            BrandTotal brandTotal = brandTotals[slot];
+            if (brandTotal == null) {
+                brandTotal = new BrandTotal(slot, brandNames.apply(slot));
+                brandTotals[slot] = brandTotal;
+            }
+            // 정렬 기준인 총액이 바뀌기 전에 빼고, 바뀐 뒤 다시 넣어야 TreeSet이 깨지지 않는다.
+            completeBrands.remove(brandTotal);
+            brandTotal.totalPrice += price;
+            brandTotal.categoryMask |= category.mask();
+            if (brandTotal.isComplete()) {
+                completeBrands.add(brandTotal);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void remove(int slot, Category category, long price) {
+        writeLock.lock();
+        try {
+            final BrandTotal brandTotal = slot < brandTotals.length ? brandTotals[slot] : null;
+            if (brandTotal == null) {
+                return;
+            }
+            completeBrands.remove(brandTotal);
+            brandTotal.totalPrice -= price;
+            brandTotal.categoryMask &= ~category.mask();
+            // 상품이 모두 빠지면 비워 두어, slot이 다른 브랜드에 다시 배정되어도 이전 이름이 남지 않게 한다.
+            if (brandTotal.categoryMask == 0) {
+                brandTotals[slot] = null;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 모든 카테고리를 가진 브랜드가 없으면 null
+    // 브랜드의 가격을 바꾸는 쓰기는 먼저 remove로 이 집합에서 빼고 가격을 바꾼 뒤 add로 다시 넣으므로,
+    // 읽기 락 안에서 집합에 있는 브랜드의 행은 바뀌는 중이 아니다. 그래서 행도 읽기 락 안에서 읽는다.
+    Brand lowestCompleteBrand(IntFunction<Brand> toBrand) {
+        readLock.lock();
+        try {
+            if (completeBrands.isEmpty()) {
+                return null;
+            }
+            return toBrand.apply(completeBrands.first().slot);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    void clear() {
+        brandTotals = new BrandTotal[0];
+        completeBrands.clear();
+    }
+
+    private static final class BrandTotal {
+        private final int slot;
+        private final String brandName;
+        private long totalPrice;
+        private int categoryMask;
+
+        private BrandTotal(int slot, String brandName) {
+            this.slot = slot;
+            this.brandName = brandName;
+        }
+
+        private boolean isComplete() {
+            return categoryMask == Category.ALL_CATEGORIES_MASK;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 한 시점의 카탈로그를 원시 배열로 옮긴 이미지. 바이너리 스냅샷 파일을 쓰고 읽는 데 사용한다.
+// i번째 브랜드의 가격은 prices[i * 카테고리 수 + ordinal]에 있고, categoryMasks[i]에 있는 카테고리만 유효하다.
+@Getter
+@RequiredArgsConstructor
+public class CatalogImage {
+
+    public static final int CATEGORY_COUNT = Category.values().length;
+
+    private final String[] brandNames;
+    private final byte[] categoryMasks;
+    private final long[] prices;
+    // 이미지를 만들 때 함께 기록한 값. 저널 위치를 담아 스냅샷 이후의 저널만 다시 적용하는 데 사용한다.
+    private final long checkpoint;
+
+    public int getBrandCount() {
+        return brandNames.length;
+    }
+
+    public long price(int brand, Category category) {
+        return prices[brand * CATEGORY_COUNT + category.ordinal()];
+    }
+
+    public boolean hasProduct(int brand, Category category) {
+        return (categoryMasks[brand] & category.mask()) != 0;
+    }
+
+    Brand toBrand(int brand) {
+        final String brandName = brandNames[brand];
+        final List<Product> products = new ArrayList<>(Integer.bitCount(categoryMasks[brand] & 0xFF));
+        for (Category category : Category.values()) {
+            if (hasProduct(brand, category)) {
+                products.add(new Product(brandName, category, price(brand, category)));
+            }
+        }
+        return new Brand(brandName, products);
+    }
+}
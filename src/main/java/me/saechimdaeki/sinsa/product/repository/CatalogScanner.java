@@ -0,0 +1,175 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+// 브랜드 목록을 한 번 순회하여 카테고리별 최저가, 최고가 상품(동률 포함)과 총액이 가장 낮은 브랜드를 구한다.
+// 브랜드 수가 parallelThreshold 이상이면 전용 ForkJoinPool에서 구간을 나누어 순회하고 부분 결과를 합친다.
+// 합칠 때 항상 앞 구간의 결과를 먼저 두므로 동률 상품의 순서와 총액이 같은 브랜드 중 선택되는 브랜드는 순차 순회와 같다.
+final class CatalogScanner implements AutoCloseable {
+
+    static final CatalogScanner SEQUENTIAL = new CatalogScanner(null, Integer.MAX_VALUE);
+
+    // 작업 하나가 순회하는 최소 브랜드 수. 이보다 작게 나누면 분할, 병합 비용이 순회 비용보다 커진다.
+    private static final int MIN_CHUNK_SIZE = 4_096;
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final ForkJoinPool pool;
+
+    private final int parallelThreshold;
+
+    private CatalogScanner(ForkJoinPool pool, int parallelThreshold) {
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    static CatalogScanner parallel(int parallelism, int parallelThreshold) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("catalog-scan-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        return new CatalogScanner(pool, parallelThreshold);
+    }
+
+    Aggregate scan(List<Brand> brands) {
+        if (pool == null || brands.size() < parallelThreshold) {
+            return new Aggregate().addAll(brands, 0, brands.size());
+        }
+        final int chunkSize = Math.max(MIN_CHUNK_SIZE, brands.size() / (pool.getParallelism() * 4));
+        return pool.invoke(new ScanTask(brands, 0, brands.size(), chunkSize));
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Aggregate> {
+
+        private final List<Brand> brands;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        private ScanTask(List<Brand> brands, int from, int to, int chunkSize) {
+            this.brands = brands;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected Aggregate compute() {
+            if (to - from <= chunkSize) {
+                return new Aggregate().addAll(brands, from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final ScanTask right = new ScanTask(brands, middle, to, chunkSize);
+            right.fork();
+            final Aggregate left = new ScanTask(brands, from, middle, chunkSize).compute();
+            return left.merge(right.join());
+        }
+    }
+
+    // 한 구간의 순회 결과
+    static final class Aggregate {
+
+        private final long[] minPrices = new long[CATEGORIES.length];
+        private final long[] maxPrices = new long[CATEGORIES.length];
+        private final List<List<Product>> lowest = new ArrayList<>(CATEGORIES.length);
+        private final List<List<Product>> highest = new ArrayList<>(CATEGORIES.length);
+        private Brand lowestBrand;
+        private long lowestTotalPrice = Long.MAX_VALUE;
+
+        private Aggregate() {
+            Arrays.fill(minPrices, Long.MAX_VALUE);
+            Arrays.fill(maxPrices, Long.MIN_VALUE);
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                lowest.add(new ArrayList<>());
+                highest.add(new ArrayList<>());
+            }
+        }
+
+        List<Product> lowest(Category category) {
+            return lowest.get(category.ordinal());
+        }
+
+        List<Product> highest(Category category) {
+            return highest.get(category.ordinal());
+        }
+
+        // 모든 카테고리 상품을 가진 브랜드가 없으면 null
+        Brand lowestBrand() {
+            return lowestBrand;
+        }
+
+        private Aggregate addAll(List<Brand> brands, int from, int to) {
+            for (int i = from; i < to; i++) {
+                add(brands.get(i));
+            }
+            return this;
+        }
+
+        private void add(Brand brand) {
+            long totalPrice = 0L;
+            for (Product product : brand.getProducts()) {
+                final int ordinal = product.getCategory().ordinal();
+                final long price = product.getPrice();
+                totalPrice += price;
+                if (price < minPrices[ordinal]) {
+                    minPrices[ordinal] = price;
+                    lowest.get(ordinal).clear();
+                }
+                if (price == minPrices[ordinal]) {
+                    lowest.get(ordinal).add(product);
+                }
+                if (price > maxPrices[ordinal]) {
+                    maxPrices[ordinal] = price;
+                    highest.get(ordinal).clear();
+                }
+                if (price == maxPrices[ordinal]) {
+                    highest.get(ordinal).add(product);
+                }
+            }
+            if (brand.getProducts().size() == CATEGORIES.length && totalPrice < lowestTotalPrice) {
+                lowestTotalPrice = totalPrice;
+                lowestBrand = brand;
+            }
+        }
+
+        // right는 이 구간 바로 뒤의 구간이어야 한다.
+        private Aggregate merge(Aggregate right) {
+            for (int ordinal = 0; ordinal < CATEGORIES.length; ordinal++) {
+                if (right.minPrices[ordinal] < minPrices[ordinal]) {
+                    minPrices[ordinal] = right.minPrices[ordinal];
+                    lowest.set(ordinal, right.lowest.get(ordinal));
+                } else if (right.minPrices[ordinal] == minPrices[ordinal]) {
+                    lowest.get(ordinal).addAll(right.lowest.get(ordinal));
+                }
+                if (right.maxPrices[ordinal] > maxPrices[ordinal]) {
+                    maxPrices[ordinal] = right.maxPrices[ordinal];
+                    highest.set(ordinal, right.highest.get(ordinal));
+                } else if (right.maxPrices[ordinal] == maxPrices[ordinal]) {
+                    highest.get(ordinal).addAll(right.highest.get(ordinal));
+                }
+            }
+            if (right.lowestTotalPrice < lowestTotalPrice) {
+                lowestTotalPrice = right.lowestTotalPrice;
+                lowestBrand = right.lowestBrand;
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.LowestPriceChanges;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.PriceRangePage;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.util.*;
+
+// 한 시점의 카탈로그 전체와 조회 결과를 담은 불변 객체. 생성된 뒤에는 바뀌지 않으므로 락 없이 공유해도 된다.
+final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(Map.of(), null, 0L, CatalogScanner.SEQUENTIAL);
+
+    private final Map<String, Brand> brands;
+    private final List<Brand> brandList;
+    private final List<Product> lowestPricedProducts;
+    private final Map<Category, CategoryPriceRange> priceRanges;
+    private final Brand brandWithLowestTotalPrice;
+    private final long version;
+    // 직전 스냅샷의 변경 이력을 복사해 이 스냅샷에서 바뀐 항목만 반영한 것. 생성 후에는 읽기만 한다.
+    private final LowestPriceChangelog lowestPriceChangelog;
+    @SuppressWarnings("unchecked")
+    private final List<Product>[] sortedProducts = new List[Category.values().length];
+
+    // brands의 Brand는 이미 불변으로 정규화되어 있어야 한다. 조회 결과는 여기서 한 번의 순회로 미리 계산하며,
+    // 브랜드가 많으면 scanner가 순회를 나누어 병렬로 실행한다.
+    CatalogSnapshot(Map<String, Brand> brands, CatalogSnapshot previous, long version, CatalogScanner scanner) {
+        this.brands = Collections.unmodifiableMap(brands);
+        this.brandList = List.copyOf(brands.values());
+
+        final Category[] categories = Category.values();
+        final CatalogScanner.Aggregate aggregate = scanner.scan(brandList);
+        final Brand lowestBrand = aggregate.lowestBrand();
+
+        final List<Product> lowestProducts = new ArrayList<>();
+        final Map<Category, CategoryPriceRange> ranges = new EnumMap<>(Category.class);
+        for (Category category : categories) {
+            final List<Product> lowestInCategory = aggregate.lowest(category);
+            if (!lowestInCategory.isEmpty()) {
+                lowestProducts.add(lowestInCategory.get(0));
+            }
+            ranges.put(category, new CategoryPriceRange(
+                    category,
+                    List.copyOf(lowestInCategory),
+                    List.copyOf(aggregate.highest(category))
+            ));
+        }
+        this.lowestPricedProducts = List.copyOf(lowestProducts);
+        this.priceRanges = Collections.unmodifiableMap(ranges);
+        this.brandWithLowestTotalPrice = lowestBrand;
+
+        this.version = version;
+        this.lowestPriceChangelog = previous == null ? new LowestPriceChangelog() : previous.lowestPriceChangelog.copy();
+        for (Category category : categories) {
+            final List<Product> lowestInCategory = aggregate.lowest(category);
+            lowestPriceChangelog.recordLowest(category, lowestInCategory.isEmpty() ? null : lowestInCategory.get(0), version);
+        }
+        lowestPriceChangelog.recordLowestBrand(lowestBrand, version);
+    }
+
+    // 다음 버전을 만들기 위한 수정 가능한 복사본
+    Map<String, Brand> copyBrands() {
+        return new LinkedHashMap<>(brands);
+    }
+
+    Brand getBrand(String brandName) {
+        return brands.get(brandName);
+    }
+
+    List<Brand> getAllBrands() {
+        return brandList;
+    }
+
+    List<Product> getLowestPricedProducts() {
+        return lowestPricedProducts;
+    }
+
+    CategoryPriceRange getCategoryPriceRange(Category category) {
+        return priceRanges.get(category);
+    }
+
+    List<Product> getRankedProducts(Category category, PriceOrder order, int limit) {
+        final List<Product> sorted = sortedProducts(category);
+        final int size = Math.min(limit, sorted.size());
+        if (order == PriceOrder.LOWEST) {
+            return sorted.subList(0, size);
+        }
+        final List<Product> highest = new ArrayList<>(size);
+        for (int i = sorted.size() - 1; highest.size() < size; i--) {
+            highest.add(sorted.get(i));
+        }
+        return highest;
+    }
+
+    // 정렬된 목록에서 구간의 시작과 끝을 이분 탐색하므로 개수는 O(log n), 페이지는 O(log n + limit)이다.
+    PriceRangePage getProductsInPriceRange(Category category, long minPrice, long maxPrice, int offset, int limit) {
+        final List<Product> sorted = sortedProducts(category);
+        final int from = firstIndexAbove(sorted, minPrice - 1);
+        final int to = Math.max(from, firstIndexAbove(sorted, maxPrice));
+        final int pageFrom = (int) Math.min((long) from + offset, to);
+        final int pageTo = (int) Math.min((long) pageFrom + limit, to);
+        return new PriceRangePage(sorted.subList(pageFrom, pageTo), to - from);
+    }
+
+    long countProductsInPriceRange(Category category, long minPrice, long maxPrice) {
+        final List<Product> sorted = sortedProducts(category);
+        final int from = firstIndexAbove(sorted, minPrice - 1);
+        return Math.max(0, firstIndexAbove(sorted, maxPrice) - from);
+    }
+
+    Optional<Brand> getBrandWithLowestTotalPrice() {
+        return Optional.ofNullable(brandWithLowestTotalPrice);
+    }
+
+    LowestPriceChanges getLowestPriceChanges(long sinceVersion) {
+        return lowestPriceChangelog.changesSince(sinceVersion, version);
+    }
+
+    // 카테고리별 가격 순 정렬은 해당 카테고리를 처음 정렬된 순서로 조회할 때 한 번만 만든다.
+    // 스냅샷은 불변이므로 동시에 만들어도 결과가 같다.
+    private List<Product> sortedProducts(Category category) {
+        List<Product> sorted = sortedProducts[category.ordinal()];
+        if (sorted == null) {
+            final List<Product> products = new ArrayList<>();
+            for (Brand brand : brandList) {
+                for (Product product : brand.getProducts()) {
+                    if (product.getCategory() == category) {
+                        products.add(product);
+                    }
+                }
+            }
+            products.sort(Comparator.comparingLong(Product::getPrice));
+            sorted = List.copyOf(products);
+            sortedProducts[category.ordinal()] = sorted;
+        }
+        return sorted;
+    }
+
+    // 가격이 price보다 큰 첫 상품의 위치
+    private static int firstIndexAbove(List<Product> sorted, long price) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (sorted.get(mid).getPrice() <= price) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 브랜드의 상품을 카테고리 순서로, 카테고리당 하나씩만 남긴 불변 Brand로 만든다.
+    static Brand immutableBrand(String brandName, Collection<Product> products) {
+        final Map<Category, Product> byCategory = new EnumMap<>(Category.class);
+        for (Product product : products) {
+            byCategory.putIfAbsent(product.getCategory(),
+                    new Product(brandName, product.getCategory(), product.getPrice()));
+        }
+        return new Brand(brandName, List.copyOf(byCategory.values()));
+    }
+}
@@ -0,0 +1,43 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 카탈로그가 바뀔 때마다 증가하는 버전. 전체 버전과 카테고리별 버전을 유지한다.
+// 데이터를 바꾼 뒤에 버전을 올리므로, 버전을 먼저 읽고 계산한 조회 결과는 항상 그 버전 이후의 데이터를 담는다.
+// 서로 다른 브랜드의 쓰기가 동시에 버전을 올릴 수 있으므로 카테고리 버전은 더 큰 값으로만 갱신한다.
+class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final AtomicLongArray categoryVersions = new AtomicLongArray(Category.values().length);
+
+    long current() {
+        return version.get();
+    }
+
+    long of(Category category) {
+        return categoryVersions.get(category.ordinal());
+    }
+
+    void advance(int categoryMask) {
+        final long next = version.incrementAndGet();
+        for (Category category : Category.values()) {
+            if ((categoryMask & category.mask()) != 0) {
+                categoryVersions.accumulateAndGet(category.ordinal(), next, Math::max);
+            }
+        }
+    }
+
+    static int maskOf(Collection<Product> products) {
+        int mask = 0;
+        for (Product product : products) {
+            mask |= product.getCategory().mask();
+        }
+        return mask;
+    }
+}
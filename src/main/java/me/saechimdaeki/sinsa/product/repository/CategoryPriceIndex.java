@@ -0,0 +1,263 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.PriceRangePage;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+// 카테고리별로 가격 -> 브랜드 id(PriceStore slot) 목록을 정렬된 상태로 유지하여 최저가, 최고가 조회를 브랜드 수와 무관하게 처리한다.
+// 브랜드 이름은 조회 결과의 Product를 만들 때만 slot으로 찾는다.
+// 서로 다른 브랜드의 쓰기가 동시에 들어올 수 있으므로 카테고리별 읽기/쓰기 락으로 보호한다.
+// 조회는 LockAspect의 전역 읽기 락만 잡고 들어오므로(키가 있는 쓰기와 동시에 실행된다) 카테고리 읽기 락을 잡는다.
+// 한 번의 조회 결과는 한 카테고리 안에서만 일관되며, 여러 카테고리를 묶은 조회는 카테고리마다 따로 읽는다.
+class CategoryPriceIndex {
+
+    private static final int EMPTY = -1;
+
+    private final IntFunction<String> brandNames;
+
+    private final CategoryPrices[] index = new CategoryPrices[Category.values().length];
+
+    CategoryPriceIndex(IntFunction<String> brandNames) {
+        this.brandNames = brandNames;
+        for (Category category : Category.values()) {
+            index[category.ordinal()] = new CategoryPrices();
+        }
+    }
+
+    void add(Category category, int slot, long price) {
+        final CategoryPrices prices = index[category.ordinal()];
+        prices.writeLock.lock();
+        try {
+            prices.add(slot, price);
+        } finally {
+            prices.writeLock.unlock();
+        }
+    }
+
+    void remove(Category category, int slot, long price) {
+        final CategoryPrices prices = index[category.ordinal()];
+        prices.writeLock.lock();
+        try {
+            prices.remove(slot, price);
+        } finally {
+            prices.writeLock.unlock();
+        }
+    }
+
+    Product lowest(Category category) {
+        final CategoryPrices prices = index[category.ordinal()];
+        prices.readLock.lock();
+        try {
+            final Map.Entry<Long, Bucket> entry = prices.buckets.firstEntry();
+            if (entry == null) {
+                return null;
+            }
+            return toProduct(entry.getValue().first(), category, entry.getKey());
+        } finally {
+            prices.readLock.unlock();
+        }
+    }
+
+    CategoryPriceRange range(Category category) {
+        final CategoryPrices prices = index[category.ordinal()];
+        prices.readLock.lock();
+        try {
+            return new CategoryPriceRange(
+                    category,
+                    toProducts(category, prices.buckets.firstEntry()),
+                    toProducts(category, prices.buckets.lastEntry())
+            );
+        } finally {
+            prices.readLock.unlock();
+        }
+    }
+
+    // 정렬된 가격 맵을 앞(또는 뒤)에서부터 limit개까지만 순회하므로 O(log n + limit)이다.
+    List<Product> ranked(Category category, PriceOrder order, int limit) {
+        final CategoryPrices prices = index[category.ordinal()];
+        prices.readLock.lock();
+        try {
+            final NavigableMap<Long, Bucket> buckets = order == PriceOrder.LOWEST
+                    ? prices.buckets
+                    : prices.buckets.descendingMap();
+            final List<Product> products = new ArrayList<>(Math.min(limit, 64));
+            for (Map.Entry<Long, Bucket> entry : buckets.entrySet()) {
+                final Bucket bucket = entry.getValue();
+                for (int i = bucket.head; i < bucket.size; i++) {
+                    if (bucket.slots[i] == EMPTY) {
+                        continue;
+                    }
+                    if (products.size() == limit) {
+                        return products;
+                    }
+                    products.add(toProduct(bucket.slots[i], category, entry.getKey()));
+                }
+            }
+            return products;
+        } finally {
+            prices.readLock.unlock();
+        }
+    }
+
+    long count(Category category, long minPrice, long maxPrice) {
+        final CategoryPrices prices = index[category.ordinal()];
+        prices.readLock.lock();
+        try {
+            return count(prices, minPrice, maxPrice);
+        } finally {
+            prices.readLock.unlock();
+        }
+    }
+
+    // 한 페이지와 전체 개수를 같은 읽기 락 안에서 구하므로 둘 사이에 쓰기가 끼어들지 않는다.
+    PriceRangePage page(Category category, long minPrice, long maxPrice, int offset, int limit) {
+        final CategoryPrices prices = index[category.ordinal()];
+        prices.readLock.lock();
+        try {
+            return new PriceRangePage(range(prices, category, minPrice, maxPrice, offset, limit),
+                    count(prices, minPrice, maxPrice));
+        } finally {
+            prices.readLock.unlock();
+        }
+    }
+
+    // 구간에 걸친 가격 버킷의 크기만 더하므로 상품 객체를 만들지 않는다. 비용은 구간 안의 서로 다른 가격 수에 비례한다.
+    private long count(CategoryPrices prices, long minPrice, long maxPrice) {
+        long count = 0;
+        for (Bucket bucket : prices.buckets.subMap(minPrice, true, maxPrice, true).values()) {
+            count += bucket.live;
+        }
+        return count;
+    }
+
+    // offset 이전의 가격 버킷은 크기만 보고 건너뛴다.
+    private List<Product> range(CategoryPrices prices, Category category, long minPrice, long maxPrice, int offset, int limit) {
+        final List<Product> products = new ArrayList<>(Math.min(limit, 64));
+        long skip = offset;
+        for (Map.Entry<Long, Bucket> entry : prices.buckets.subMap(minPrice, true, maxPrice, true).entrySet()) {
+            final Bucket bucket = entry.getValue();
+            if (skip >= bucket.live) {
+                skip -= bucket.live;
+                continue;
+            }
+            for (int i = bucket.head; i < bucket.size; i++) {
+                if (bucket.slots[i] == EMPTY) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                if (products.size() == limit) {
+                    return products;
+                }
+                products.add(toProduct(bucket.slots[i], category, entry.getKey()));
+            }
+        }
+        return products;
+    }
+
+    void clear() {
+        for (CategoryPrices prices : index) {
+            prices.buckets.clear();
+            prices.positions = new int[0];
+        }
+    }
+
+    private List<Product> toProducts(Category category, Map.Entry<Long, Bucket> entry) {
+        if (entry == null) {
+            return List.of();
+        }
+        final Bucket bucket = entry.getValue();
+        final List<Product> products = new ArrayList<>(bucket.live);
+        for (int i = bucket.head; i < bucket.size; i++) {
+            if (bucket.slots[i] != EMPTY) {
+                products.add(toProduct(bucket.slots[i], category, entry.getKey()));
+            }
+        }
+        return products;
+    }
+
+    private Product toProduct(int slot, Category category, long price) {
+        return new Product(brandNames.apply(slot), category, price);
+    }
+
+    // 한 카테고리의 가격 버킷. 브랜드는 카테고리마다 버킷 하나에만 들어가므로,
+    // slot별로 버킷 안의 위치를 기억해 두고 삭제할 때 버킷을 탐색하지 않는다.
+    private static final class CategoryPrices {
+        private final NavigableMap<Long, Bucket> buckets = new TreeMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Lock readLock = lock.readLock();
+        private final Lock writeLock = lock.writeLock();
+        private int[] positions = new int[0];
+
+        private void add(int slot, long price) {
+            final Bucket bucket = buckets.computeIfAbsent(price, key -> new Bucket());
+            if (bucket.size == bucket.slots.length) {
+                bucket.slots = Arrays.copyOf(bucket.slots, bucket.slots.length * 2);
+            }
+            if (slot >= positions.length) {
+                positions = Arrays.copyOf(positions, Math.max(slot + 1, positions.length * 2));
+            }
+            positions[slot] = bucket.size;
+            bucket.slots[bucket.size++] = slot;
+            bucket.live++;
+        }
+
+        private void remove(int slot, long price) {
+            final Bucket bucket = buckets.get(price);
+            if (bucket == null || slot >= positions.length) {
+                return;
+            }
+            final int position = positions[slot];
+            if (position >= bucket.size || bucket.slots[position] != slot) {
+                return;
+            }
+            bucket.slots[position] = EMPTY;
+            bucket.live--;
+            if (bucket.live == 0) {
+                buckets.remove(price);
+            } else if (bucket.live * 2 < bucket.size) {
+                compact(bucket);
+            } else {
+                while (bucket.slots[bucket.head] == EMPTY) {
+                    bucket.head++;
+                }
+            }
+        }
+
+        // 삭제 표시된 자리를 메우며 앞으로 당긴다. 버킷 안의 순서(추가된 순서)는 유지된다.
+        private void compact(Bucket bucket) {
+            int size = 0;
+            for (int i = bucket.head; i < bucket.size; i++) {
+                final int slot = bucket.slots[i];
+                if (slot != EMPTY) {
+                    positions[slot] = size;
+                    bucket.slots[size++] = slot;
+                }
+            }
+            bucket.size = size;
+            bucket.head = 0;
+        }
+    }
+
+    // 같은 가격의 브랜드 slot을 추가된 순서대로 담는다. 삭제는 EMPTY로 표시하고, 절반 이상이 비면 모아서 정리한다.
+    private static final class Bucket {
+        private int[] slots = new int[2];
+        private int size;
+        private int live;
+        // 살아 있는 첫 slot의 위치
+        private int head;
+
+        private int first() {
+            return slots[head];
+        }
+    }
+}
@@ -3,143 +3,353 @@ package me.saechimdaeki.sinsa.product.repository;
 import lombok.extern.slf4j.Slf4j;
 import me.saechimdaeki.sinsa.common.annotation.ReadLock;
 import me.saechimdaeki.sinsa.common.annotation.WriteLock;
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
 import me.saechimdaeki.sinsa.product.domain.Brand;
 import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.LowestPriceChanges;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.PriceRangePage;
 import me.saechimdaeki.sinsa.product.domain.Product;
 import me.saechimdaeki.sinsa.product.exception.ErrorCode;
 import me.saechimdaeki.sinsa.product.exception.ProductException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
 
+import static me.saechimdaeki.sinsa.product.repository.PriceStore.NO_SLOT;
+
+// 브랜드 단위 쓰기는 브랜드 이름을 키로 잠그므로 서로 다른 브랜드의 쓰기는 동시에 실행될 수 있다.
+// 카탈로그 전체를 읽거나 지우는 메서드는 키 없이 잠가 모든 브랜드 쓰기와 배타적으로 실행된다.
+// 브랜드 이름은 PriceStore가 배정하는 조밀한 int id(slot)로 한 번만 바꾸고, 인덱스는 모두 slot으로 관리한다.
+// 이름은 조회 결과의 Brand, Product를 만들 때만 slot으로 찾는다.
 @Repository
+@Profile("!snapshot & !mmap & !offheap")
 @Slf4j
 public class InMemoryProductRepositoryImpl implements ProductRepository {
 
-    private final Map<String, Brand> brandMap = new HashMap<>();
+    private final PriceStore priceStore;
+
+    private final CategoryPriceIndex priceIndex;
+
+    private final BrandTotalIndex totalIndex;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    // 쓰기 경로에서는 건드리지 않고, 변경 조회 시에 바뀐 카테고리만 확인한다.
+    private final LowestPriceChangelog lowestPriceChangelog = new LowestPriceChangelog();
+
+    private final ReentrantLock lowestPriceChangelogLock = new ReentrantLock();
+
+    public InMemoryProductRepositoryImpl() {
+        this(new PriceMatrix());
+    }
+
+    // 저장소에 이미 있는 브랜드(예: 파일에서 다시 연 저장소)로 인덱스를 구성한다.
+    InMemoryProductRepositoryImpl(PriceStore priceStore) {
+        this.priceStore = priceStore;
+        this.priceIndex = new CategoryPriceIndex(priceStore::brandName);
+        this.totalIndex = new BrandTotalIndex(priceStore::brandName);
+        final int[] categoryMask = {0};
+        priceStore.forEachSlot(slot -> {
+            for (Category category : Category.values()) {
+                if (priceStore.hasProduct(slot, category)) {
+                    index(category, slot, priceStore.price(slot, category));
+                    categoryMask[0] |= category.mask();
+                }
+            }
+        });
+        if (categoryMask[0] != 0) {
+            catalogVersion.advance(categoryMask[0]);
+        }
+    }
 
     @Override
-    @WriteLock
+    @WriteLock(key = "#brand.brandName")
     public Brand addBrand(Brand brand) {
-        brandMap.put(brand.getBrandName(), brand);
+        putBrand(brand);
         return brand;
     }
 
     @Override
     @WriteLock
     public void clearAllData() {
-        brandMap.clear();
+        priceStore.clear();
+        priceIndex.clear();
+        totalIndex.clear();
+        catalogVersion.advance(Category.ALL_CATEGORIES_MASK);
     }
 
+    // slot 하나의 고정 길이 행만 읽으므로 stamped 전략에서 낙관적 읽기로 실행해도 된다.
     @Override
+    @ReadLock(key = "#brandName", optimistic = true)
     public Brand getBrand(String brandName) {
-        return brandMap.get(brandName);
+        final int slot = priceStore.slotOf(brandName);
+        return slot == NO_SLOT ? null : priceStore.toBrand(slot);
     }
 
     @Override
-    @WriteLock
+    @WriteLock(key = "#product.brandName")
     public Product addProduct(Product product) {
-        final String brandName = product.getBrandName();
-        Brand brand = brandMap.get(brandName);
-        if (brand == null) {
-            brand = new Brand(brandName, new ArrayList<>());
-            brandMap.put(brandName, brand);
-        }
+        final int slot = priceStore.addBrand(product.getBrandName());
         // 요구사항에 맞춰 한 브랜드는 한 카테고리당 상품이 하나이므로 덮어씌워진다.
-        brand.getProducts().removeIf(product1 -> product1.getCategory().equals(product.getCategory()));
-        brand.getProducts().add(product);
-
+        putPrice(slot, product.getCategory(), product.getPrice());
+        catalogVersion.advance(product.getCategory().mask());
         return product;
     }
 
+    // 여러 브랜드에 걸친 상품이므로 키 없이 카탈로그 전체 쓰기 락을 한 번만 잡는다.
+    @Override
+    @WriteLock
+    public int addProducts(List<Product> products) {
+        int categoryMask = 0;
+        for (Product product : products) {
+            final int slot = priceStore.addBrand(product.getBrandName());
+            putPrice(slot, product.getCategory(), product.getPrice());
+            categoryMask |= product.getCategory().mask();
+        }
+        catalogVersion.advance(categoryMask);
+        return products.size();
+    }
+
     @Override
     @WriteLock
+    public int applyBatch(List<BatchOperation> operations) {
+        final BatchPlan plan = BatchPlan.of(operations, new BatchPlan.CatalogView() {
+            @Override
+            public boolean hasBrand(String brandName) {
+                return priceStore.slotOf(brandName) != NO_SLOT;
+            }
+
+            @Override
+            public boolean hasProduct(String brandName, Category category) {
+                final int slot = priceStore.slotOf(brandName);
+                return slot != NO_SLOT && priceStore.hasProduct(slot, category);
+            }
+        });
+        plan.getChanges().forEach((brandName, changes) -> {
+            final int slot = priceStore.addBrand(brandName);
+            changes.forEach((category, price) -> {
+                if (price != null) {
+                    putPrice(slot, category, price);
+                } else if (priceStore.hasProduct(slot, category)) {
+                    unindex(category, slot, priceStore.price(slot, category));
+                    priceStore.removePrice(slot, category);
+                }
+            });
+        });
+        catalogVersion.advance(plan.getCategoryMask());
+        return operations.size();
+    }
+
+    @Override
+    @WriteLock(key = "#brandName")
     public Product updateProduct(String brandName, Product product) {
-        final Brand brand = brandMap.get(brandName);
-        if (brand == null) {
+        final int slot = priceStore.slotOf(brandName);
+        if (slot == NO_SLOT) {
             throw new ProductException(ErrorCode.BRAND_NOT_FOUND);
         }
 
-        Optional<Product> savedProduct = brand.getProducts().stream()
-                .filter(p -> p.getCategory().equals(product.getCategory()))
-                .findFirst();
-
-        if (savedProduct.isEmpty()) {
+        if (!priceStore.hasProduct(slot, product.getCategory())) {
             throw new ProductException(ErrorCode.PRODUCT_NOT_FOUND);
         }
 
-        brand.getProducts().remove(savedProduct.get());
-        brand.getProducts().add(product);
+        putPrice(slot, product.getCategory(), product.getPrice());
+        catalogVersion.advance(product.getCategory().mask());
 
         return product;
     }
 
     @Override
-    @WriteLock
+    @WriteLock(key = "#brandName")
     public void deleteProduct(String brandName, Category category) {
-        final Brand brand = brandMap.get(brandName);
-        if (brand == null) {
+        final int slot = priceStore.slotOf(brandName);
+        if (slot == NO_SLOT) {
             throw new ProductException(ErrorCode.BRAND_NOT_FOUND);
         }
 
-        Optional<Product> product = brand.getProducts().stream()
-                .filter(p -> p.getCategory().equals(category))
-                .findFirst();
-
-        if (product.isEmpty()) {
+        if (!priceStore.hasProduct(slot, category)) {
             throw new ProductException(ErrorCode.PRODUCT_NOT_FOUND);
         }
 
-        brand.getProducts().remove(product.get());
-
-        Brand brand1 = brandMap.get(brandName);
-        System.out.println(brand1);
+        unindex(category, slot, priceStore.price(slot, category));
+        priceStore.removePrice(slot, category);
+        catalogVersion.advance(category.mask());
     }
 
     @Override
     @ReadLock
     public List<Brand> getAllBrands() {
-        return new ArrayList<>(brandMap.values());
+        return priceStore.toBrands();
     }
 
     @Override
-    @WriteLock
+    @ReadLock(excludeKeyedWrites = false)
+    public List<Product> getLowestPricedProducts() {
+        final List<Product> lowestProducts = new ArrayList<>();
+        for (Category category : Category.values()) {
+            final Product lowest = priceIndex.lowest(category);
+            if (lowest != null) {
+                lowestProducts.add(lowest);
+            }
+        }
+        return lowestProducts;
+    }
+
+    @Override
+    @ReadLock(excludeKeyedWrites = false)
+    public CategoryPriceRange getCategoryPriceRange(Category category) {
+        return priceIndex.range(category);
+    }
+
+    @Override
+    @ReadLock(excludeKeyedWrites = false)
+    public List<Product> getRankedProducts(Category category, PriceOrder order, int limit) {
+        return priceIndex.ranked(category, order, limit);
+    }
+
+    @Override
+    @ReadLock(excludeKeyedWrites = false)
+    public PriceRangePage getProductsInPriceRange(Category category, long minPrice, long maxPrice, int offset, int limit) {
+        return priceIndex.page(category, minPrice, maxPrice, offset, limit);
+    }
+
+    @Override
+    @ReadLock(excludeKeyedWrites = false)
+    public long countProductsInPriceRange(Category category, long minPrice, long maxPrice) {
+        return priceIndex.count(category, minPrice, maxPrice);
+    }
+
+    @Override
+    @ReadLock(excludeKeyedWrites = false)
+    public Optional<Brand> getBrandWithLowestTotalPrice() {
+        return Optional.ofNullable(totalIndex.lowestCompleteBrand(priceStore::toBrand));
+    }
+
+    // 읽기끼리는 동시에 들어올 수 있으므로 변경 이력은 따로 잠근다.
+    // 가상 스레드가 기다리는 동안 캐리어 스레드를 붙잡지 않도록 synchronized 대신 ReentrantLock을 사용한다.
+    @Override
+    @ReadLock
+    public LowestPriceChanges getLowestPriceChanges(long sinceVersion) {
+        lowestPriceChangelogLock.lock();
+        try {
+            lowestPriceChangelog.refresh(catalogVersion, priceIndex::lowest,
+                    () -> getBrandWithLowestTotalPrice().orElse(null));
+            return lowestPriceChangelog.changesSince(sinceVersion, catalogVersion.current());
+        } finally {
+            lowestPriceChangelogLock.unlock();
+        }
+    }
+
+    @Override
+    @WriteLock(key = "#brandName")
     public void deleteBrand(String brandName) {
-        if (!brandMap.containsKey(brandName)) {
+        final int slot = priceStore.slotOf(brandName);
+        if (slot == NO_SLOT) {
             throw new ProductException(ErrorCode.NO_BRAND_DELETED);
         }
-        brandMap.remove(brandName);
+        final int categoryMask = priceStore.categoryMask(slot);
+        unindexBrand(slot);
+        priceStore.removeBrand(slot);
+        catalogVersion.advance(categoryMask);
+    }
+
+    // 같은 이름의 브랜드가 있으면 기존 상품을 모두 지우고 새 브랜드의 상품으로 대체한다.
+    // 같은 카테고리 상품이 중복으로 들어온 경우 첫 상품만 반영한다.
+    private void putBrand(Brand brand) {
+        final String brandName = brand.getBrandName();
+        int slot = priceStore.slotOf(brandName);
+        int categoryMask = 0;
+        if (slot != NO_SLOT) {
+            categoryMask = priceStore.categoryMask(slot);
+            unindexBrand(slot);
+            priceStore.removeBrand(slot);
+        }
+        slot = priceStore.addBrand(brandName);
+        for (Product product : brand.getProducts()) {
+            if (!priceStore.hasProduct(slot, product.getCategory())) {
+                putPrice(slot, product.getCategory(), product.getPrice());
+            }
+        }
+        catalogVersion.advance(categoryMask | priceStore.categoryMask(slot));
     }
 
+    // 행 복사 동안 모든 쓰기를 막아야 하므로 카탈로그 전체 읽기 락을 잡는다.
+    @Override
+    @ReadLock
+    public CatalogImage exportImage(LongSupplier checkpoint) {
+        return priceStore.toImage(checkpoint.getAsLong());
+    }
 
-    // 과제에서 요구하는 초기 데이터 셋팅
-    public void initData() {
-        final String[] brandNames = {"A", "B", "C", "D", "E", "F", "G", "H", "I"};
-        final Map<String, List<Long>> priceData = new HashMap<>();
-        priceData.put("A", List.of(11200L, 5500L, 4200L, 9000L, 2000L, 1700L, 1800L, 2300L));
-        priceData.put("B", List.of(10500L, 5900L, 3800L, 9100L, 2100L, 2000L, 2000L, 2200L));
-        priceData.put("C", List.of(10000L, 6200L, 3300L, 9200L, 2200L, 1900L, 2200L, 2100L));
-        priceData.put("D", List.of(10100L, 5100L, 3000L, 9500L, 2500L, 1500L, 2400L, 2000L));
-        priceData.put("E", List.of(10700L, 5000L, 3800L, 9900L, 2300L, 1800L, 2100L, 2100L));
-        priceData.put("F", List.of(11200L, 7200L, 4000L, 9300L, 2100L, 1600L, 2300L, 1900L));
-        priceData.put("G", List.of(10500L, 5800L, 3900L, 9000L, 2200L, 1700L, 2100L, 2000L));
-        priceData.put("H", List.of(10800L, 6300L, 3100L, 9700L, 2100L, 1600L, 2000L, 2000L));
-        priceData.put("I", List.of(11400L, 6700L, 3200L, 9500L, 2400L, 1700L, 1700L, 2400L));
-
-        for (String brandName : brandNames) {
-            final List<Product> products = new ArrayList<>();
-            final List<Long> prices = priceData.get(brandName);
-            final Category[] categories = Category.values();
-            for (int i = 0; i < categories.length; i++) {
-                Product product = new Product(
-                        brandName,
-                        categories[i],
-                        prices.get(i)
-                );
-                products.add(product);
+    @Override
+    @WriteLock
+    public void importImage(CatalogImage image) {
+        priceStore.clear();
+        priceIndex.clear();
+        totalIndex.clear();
+        for (int brand = 0; brand < image.getBrandCount(); brand++) {
+            final int slot = priceStore.addBrand(image.getBrandNames()[brand]);
+            for (Category category : Category.values()) {
+                if (image.hasProduct(brand, category)) {
+                    putPrice(slot, category, image.price(brand, category));
+                }
+            }
+        }
+        catalogVersion.advance(Category.ALL_CATEGORIES_MASK);
+    }
+
+    @Override
+    public long getVersion() {
+        return catalogVersion.current();
+    }
+
+    @Override
+    public long getCategoryVersion(Category category) {
+        return catalogVersion.of(category);
+    }
+
+    @Override
+    public boolean isNonBlockingRead() {
+        return false;
+    }
+
+    @Override
+    public boolean isOpenedFromStorage() {
+        return false;
+    }
+
+    private void putPrice(int slot, Category category, long price) {
+        if (priceStore.hasProduct(slot, category)) {
+            unindex(category, slot, priceStore.price(slot, category));
+        }
+        priceStore.putPrice(slot, category, price);
+        index(category, slot, price);
+    }
+
+    // PriceStore.removeBrand로 slot을 반납하기 전에 호출해야 재사용된 slot이 인덱스에 남지 않는다.
+    private void unindexBrand(int slot) {
+        for (Category category : Category.values()) {
+            if (priceStore.hasProduct(slot, category)) {
+                unindex(category, slot, priceStore.price(slot, category));
             }
-            final Brand brand = new Brand(brandName, products);
-            brandMap.put(brandName, brand);
         }
     }
+
+    private void index(Category category, int slot, long price) {
+        priceIndex.add(category, slot, price);
+        totalIndex.add(slot, category, price);
+    }
+
+    private void unindex(Category category, int slot, long price) {
+        priceIndex.remove(category, slot, price);
+        totalIndex.remove(slot, category, price);
+    }
+
+    // 과제에서 요구하는 초기 데이터 셋팅
+    public void initData() {
+        InitialCatalog.brands().forEach(this::putBrand);
+    }
 }
@@ -0,0 +1,48 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 과제에서 요구하는 초기 데이터 셋
+public final class InitialCatalog {
+
+    private InitialCatalog() {
+    }
+
+    public static List<Brand> brands() {
+        final String[] brandNames = {"A", "B", "C", "D", "E", "F", "G", "H", "I"};
+        final Map<String, List<Long>> priceData = new HashMap<>();
+        priceData.put("A", List.of(11200L, 5500L, 4200L, 9000L, 2000L, 1700L, 1800L, 2300L));
+        priceData.put("B", List.of(10500L, 5900L, 3800L, 9100L, 2100L, 2000L, 2000L, 2200L));
+        priceData.put("C", List.of(10000L, 6200L, 3300L, 9200L, 2200L, 1900L, 2200L, 2100L));
+        priceData.put("D", List.of(10100L, 5100L, 3000L, 9500L, 2500L, 1500L, 2400L, 2000L));
+        priceData.put("E", List.of(10700L, 5000L, 3800L, 9900L, 2300L, 1800L, 2100L, 2100L));
+        priceData.put("F", List.of(11200L, 7200L, 4000L, 9300L, 2100L, 1600L, 2300L, 1900L));
+        priceData.put("G", List.of(10500L, 5800L, 3900L, 9000L, 2200L, 1700L, 2100L, 2000L));
+        priceData.put("H", List.of(10800L, 6300L, 3100L, 9700L, 2100L, 1600L, 2000L, 2000L));
+        priceData.put("I", List.of(11400L, 6700L, 3200L, 9500L, 2400L, 1700L, 1700L, 2400L));
+
+        final List<Brand> brands = new ArrayList<>();
+        for (String brandName : brandNames) {
+            final List<Product> products = new ArrayList<>();
+            final List<Long> prices = priceData.get(brandName);
+            final Category[] categories = Category.values();
+            for (int i = 0; i < categories.length; i++) {
+                Product product = new Product(
+                        brandName,
+                        categories[i],
+                        prices.get(i)
+                );
+                products.add(product);
+            }
+            brands.add(new Brand(brandName, products));
+        }
+        return brands;
+    }
+}
@@ -0,0 +1,105 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.LowestPriceChanges;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// 카테고리별 최저가 상품과 최저 총액 브랜드, 그리고 각각이 마지막으로 바뀐 버전을 기록한다.
+// 항목마다 최신 값 하나만 남기는 압축된 변경 이력이므로 크기는 카테고리 수 + 1로 고정되며,
+// 아무리 오래된 버전을 기준으로 물어도 그 이후의 변경을 빠짐없이 답할 수 있다.
+// 동기화하지 않으므로 사용하는 쪽에서 보호해야 한다.
+class LowestPriceChangelog {
+
+    private static final Category[] CATEGORIES = Category.values();
+
+    private final Product[] lowestProducts;
+    private final long[] changedVersions;
+    private final long[] checkedVersions;
+    private Brand lowestBrand;
+    private long lowestBrandChangedVersion;
+    private long lowestBrandCheckedVersion;
+
+    LowestPriceChangelog() {
+        this.lowestProducts = new Product[CATEGORIES.length];
+        this.changedVersions = new long[CATEGORIES.length];
+        this.checkedVersions = new long[CATEGORIES.length];
+    }
+
+    private LowestPriceChangelog(LowestPriceChangelog source) {
+        this.lowestProducts = source.lowestProducts.clone();
+        this.changedVersions = source.changedVersions.clone();
+        this.checkedVersions = source.checkedVersions.clone();
+        this.lowestBrand = source.lowestBrand;
+        this.lowestBrandChangedVersion = source.lowestBrandChangedVersion;
+        this.lowestBrandCheckedVersion = source.lowestBrandCheckedVersion;
+    }
+
+    LowestPriceChangelog copy() {
+        return new LowestPriceChangelog(this);
+    }
+
+    // 최저가 상품이 기록된 값과 다르면 version에 바뀐 것으로 기록한다. 상품이 없으면 lowest는 null이다.
+    void recordLowest(Category category, Product lowest, long version) {
+        final int ordinal = category.ordinal();
+        if (!Objects.equals(lowestProducts[ordinal], lowest)) {
+            lowestProducts[ordinal] = lowest;
+            changedVersions[ordinal] = version;
+        }
+        checkedVersions[ordinal] = version;
+    }
+
+    void recordLowestBrand(Brand brand, long version) {
+        if (!Objects.equals(lowestBrand, brand)) {
+            lowestBrand = brand;
+            lowestBrandChangedVersion = version;
+        }
+        lowestBrandCheckedVersion = version;
+    }
+
+    // 마지막으로 확인한 뒤 쓰기가 있었던 카테고리만 현재 최저가를 다시 읽어 기록한다.
+    // 쓰기가 카테고리 버전을 올린 뒤 확인하므로, 기록되는 버전은 실제로 바뀐 버전 이후이고 확인 시점 이전이다.
+    void refresh(CatalogVersion catalogVersion, Function<Category, Product> lowest, Supplier<Brand> lowestBrand) {
+        for (Category category : CATEGORIES) {
+            final long categoryVersion = catalogVersion.of(category);
+            if (categoryVersion > checkedVersions[category.ordinal()]) {
+                recordLowest(category, lowest.apply(category), categoryVersion);
+            }
+        }
+        final long version = catalogVersion.current();
+        if (version > lowestBrandCheckedVersion) {
+            recordLowestBrand(lowestBrand.get(), version);
+        }
+    }
+
+    // since보다 뒤에 바뀐 항목만 담는다. since가 음수이면 전체를 담는다.
+    // 재시작 전 버전 등 다른 epoch의 버전은 호출하는 쪽(CatalogEpoch.versionOf)에서 -1로 바꾸므로 번호끼리 비교하지 않는다.
+    LowestPriceChanges changesSince(long since, long version) {
+        final List<Product> changedProducts = new ArrayList<>();
+        final List<Category> emptiedCategories = new ArrayList<>();
+        for (Category category : CATEGORIES) {
+            final int ordinal = category.ordinal();
+            if (changedVersions[ordinal] <= since) {
+                continue;
+            }
+            if (lowestProducts[ordinal] != null) {
+                changedProducts.add(lowestProducts[ordinal]);
+            } else if (changedVersions[ordinal] > 0) {
+                emptiedCategories.add(category);
+            }
+        }
+        final long lowestTotalPrice = Arrays.stream(lowestProducts)
+                .filter(Objects::nonNull)
+                .mapToLong(Product::getPrice)
+                .sum();
+        return new LowestPriceChanges(version, changedProducts, emptiedCategories, lowestTotalPrice,
+                lowestBrandChangedVersion > since, lowestBrand);
+    }
+}
@@ -0,0 +1,365 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+// 브랜드 행을 메모리 맵 파일(prices.dat)에 고정 길이 레코드로 저장하는 PriceStore.
+// 레코드: [brand id(slot) int][flags byte][카테고리 마스크 byte][padding 2][가격 long * 8] = 72바이트
+// 브랜드 이름은 names.dat에 [slot int][길이 short][UTF-8]로 덧붙이며, 같은 slot은 마지막 기록이 유효하다.
+// 가격은 힙 밖의 페이지 캐시에 있고 다시 열면 레코드를 그대로 사용하므로, 재시작 시 파일을 다시 파싱하지 않는다.
+// 디스크 반영 시점은 OS에 맡긴다.
+@Slf4j
+class MappedPriceStore implements PriceStore, Closeable {
+
+    static final int RECORD_SIZE = 72;
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int CATEGORY_COUNT = CATEGORIES.length;
+    private static final int BRAND_ID_OFFSET = 0;
+    private static final int FLAGS_OFFSET = 4;
+    private static final int MASK_OFFSET = 5;
+    private static final int PRICES_OFFSET = 8;
+    private static final byte LIVE = 1;
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final long PAGE_BYTES = (long) PAGE_SIZE * RECORD_SIZE;
+
+    private final Path directory;
+
+    private final FileChannel recordChannel;
+
+    private final FileChannel nameChannel;
+
+    private final Map<String, Integer> slotByBrandName = new ConcurrentHashMap<>();
+
+    // 열기 전에 prices.dat가 이미 있었는지. 브랜드를 모두 지운 저장소도 기존 저장소다.
+    private final boolean openedExisting;
+
+    private final ReentrantLock allocationLock = new ReentrantLock();
+
+    private volatile Page[] pages = new Page[0];
+
+    // 아래 필드는 allocationLock으로 보호한다.
+    private int[] freeSlots = new int[PAGE_SIZE];
+    private int freeSlotCount;
+    private volatile int slotCount;
+
+    MappedPriceStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        openedExisting = Files.exists(directory.resolve("prices.dat"));
+        recordChannel = FileChannel.open(directory.resolve("prices.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        nameChannel = FileChannel.open(directory.resolve("names.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        load();
+    }
+
+    boolean isOpenedExisting() {
+        return openedExisting;
+    }
+
+    @Override
+    public int slotOf(String brandName) {
+        final Integer slot = slotByBrandName.get(brandName);
+        return slot == null ? NO_SLOT : slot;
+    }
+
+    @Override
+    public int addBrand(String brandName) {
+        final int saved = slotOf(brandName);
+        if (saved != NO_SLOT) {
+            return saved;
+        }
+        final int slot;
+        allocationLock.lock();
+        try {
+            slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : nextSlot();
+            appendName(slot, brandName);
+        } finally {
+            allocationLock.unlock();
+        }
+        final Page page = page(slot);
+        final int offset = offset(slot);
+        page.records.putInt(offset + BRAND_ID_OFFSET, slot);
+        page.records.put(offset + MASK_OFFSET, (byte) 0);
+        // 이름을 기록한 뒤에 사용 중으로 표시하여, 중간에 장애가 나면 빈 slot으로 취급되게 한다.
+        page.records.put(offset + FLAGS_OFFSET, LIVE);
+        page.brandNames[slot & PAGE_MASK] = brandName;
+        slotByBrandName.put(brandName, slot);
+        return slot;
+    }
+
+    @Override
+    public void removeBrand(int slot) {
+        final Page page = page(slot);
+        final int offset = offset(slot);
+        slotByBrandName.remove(page.brandNames[slot & PAGE_MASK]);
+        page.records.put(offset + FLAGS_OFFSET, (byte) 0);
+        page.records.put(offset + MASK_OFFSET, (byte) 0);
+        page.brandNames[slot & PAGE_MASK] = null;
+        allocationLock.lock();
+        try {
+            freeSlot(slot);
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    @Override
+    public String brandName(int slot) {
+        return page(slot).brandNames[slot & PAGE_MASK];
+    }
+
+    @Override
+    public int categoryMask(int slot) {
+        return page(slot).records.get(offset(slot) + MASK_OFFSET) & 0xFF;
+    }
+
+    @Override
+    public boolean hasProduct(int slot, Category category) {
+        return (categoryMask(slot) & category.mask()) != 0;
+    }
+
+    @Override
+    public long price(int slot, Category category) {
+        return page(slot).records.getLong(offset(slot) + PRICES_OFFSET + category.ordinal() * Long.BYTES);
+    }
+
+    @Override
+    public void putPrice(int slot, Category category, long price) {
+        final MappedByteBuffer records = page(slot).records;
+        final int offset = offset(slot);
+        records.putLong(offset + PRICES_OFFSET + category.ordinal() * Long.BYTES, price);
+        records.put(offset + MASK_OFFSET, (byte) (records.get(offset + MASK_OFFSET) | category.mask()));
+    }
+
+    @Override
+    public void removePrice(int slot, Category category) {
+        final MappedByteBuffer records = page(slot).records;
+        final int offset = offset(slot);
+        records.put(offset + MASK_OFFSET, (byte) (records.get(offset + MASK_OFFSET) & ~category.mask()));
+    }
+
+    @Override
+    public Brand toBrand(int slot) {
+        final String brandName = brandName(slot);
+        final int mask = categoryMask(slot);
+        final List<Product> products = new ArrayList<>(Integer.bitCount(mask));
+        for (Category category : CATEGORIES) {
+            if ((mask & category.mask()) != 0) {
+                products.add(new Product(brandName, category, price(slot, category)));
+            }
+        }
+        return new Brand(brandName, products);
+    }
+
+    @Override
+    public List<Brand> toBrands() {
+        final List<Brand> brands = new ArrayList<>(slotByBrandName.size());
+        forEachSlot(slot -> brands.add(toBrand(slot)));
+        return brands;
+    }
+
+    @Override
+    public CatalogImage toImage(long checkpoint) {
+        final int brandCount = slotByBrandName.size();
+        final String[] brandNames = new String[brandCount];
+        final byte[] masks = new byte[brandCount];
+        final long[] prices = new long[brandCount * CATEGORY_COUNT];
+        final int[] brand = {0};
+        forEachSlot(slot -> {
+            final int index = brand[0]++;
+            brandNames[index] = brandName(slot);
+            masks[index] = (byte) categoryMask(slot);
+            for (Category category : CATEGORIES) {
+                prices[index * CATEGORY_COUNT + category.ordinal()] = price(slot, category);
+            }
+        });
+        return new CatalogImage(brandNames, masks, prices, checkpoint);
+    }
+
+    @Override
+    public void forEachSlot(IntConsumer action) {
+        final int count = slotCount;
+        for (int slot = 0; slot < count; slot++) {
+            if (brandName(slot) != null) {
+                action.accept(slot);
+            }
+        }
+    }
+
+    // 매핑을 해제할 수 없으므로 파일을 줄이지 않고 레코드를 빈 slot으로 표시한다.
+    @Override
+    public void clear() {
+        allocationLock.lock();
+        try {
+            final int count = slotCount;
+            for (int slot = 0; slot < count; slot++) {
+                final Page page = page(slot);
+                page.records.put(offset(slot) + FLAGS_OFFSET, (byte) 0);
+                page.records.put(offset(slot) + MASK_OFFSET, (byte) 0);
+                page.brandNames[slot & PAGE_MASK] = null;
+            }
+            slotByBrandName.clear();
+            nameChannel.truncate(0);
+            freeSlotCount = 0;
+            slotCount = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Page page : pages) {
+            page.records.force();
+        }
+        recordChannel.close();
+        nameChannel.force(false);
+        nameChannel.close();
+    }
+
+    // 레코드 파일을 페이지 단위로 매핑하고, 사용 중인 slot의 이름만 힙에 올린다.
+    private void load() throws IOException {
+        final String[] names = readNames();
+        final int pageCount = (int) ((recordChannel.size() + PAGE_BYTES - 1) / PAGE_BYTES);
+        final Page[] loaded = new Page[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            loaded[i] = mapPage(i);
+        }
+        pages = loaded;
+
+        int lastLiveSlot = -1;
+        for (int slot = 0; slot < pageCount * PAGE_SIZE; slot++) {
+            final Page page = loaded[slot >>> PAGE_SHIFT];
+            if (page.records.get(offset(slot) + FLAGS_OFFSET) != LIVE) {
+                continue;
+            }
+            final String brandName = slot < names.length ? names[slot] : null;
+            if (brandName == null) {
+                page.records.put(offset(slot) + FLAGS_OFFSET, (byte) 0);
+                continue;
+            }
+            page.brandNames[slot & PAGE_MASK] = brandName;
+            slotByBrandName.put(brandName, slot);
+            lastLiveSlot = slot;
+        }
+        slotCount = lastLiveSlot + 1;
+        for (int slot = lastLiveSlot - 1; slot >= 0; slot--) {
+            if (brandName(slot) == null) {
+                freeSlot(slot);
+            }
+        }
+        log.info("Opened mapped price store {} ({} brands)", directory, slotByBrandName.size());
+    }
+
+    private String[] readNames() throws IOException {
+        String[] names = new String[PAGE_SIZE];
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(nameChannel.position(0)), 1 << 16));
+        long position = 0;
+        while (true) {
+            final int slot;
+            final byte[] bytes;
+            try {
+                slot = in.readInt();
+                bytes = new byte[in.readShort() & 0xFFFF];
+                in.readFully(bytes);
+            } catch (EOFException e) {
+                break;
+            }
+            if (slot >= names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, slot + 1));
+            }
+            names[slot] = new String(bytes, StandardCharsets.UTF_8);
+            position += Integer.BYTES + Short.BYTES + bytes.length;
+        }
+        // 마지막 기록이 잘려 있으면 잘라내고 이어서 기록한다.
+        nameChannel.truncate(position);
+        nameChannel.position(position);
+        return names;
+    }
+
+    private void appendName(int slot, String brandName) {
+        final byte[] bytes = brandName.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + Short.BYTES + bytes.length)
+                .putInt(slot)
+                .putShort((short) bytes.length)
+                .put(bytes)
+                .flip();
+        try {
+            while (entry.hasRemaining()) {
+                nameChannel.write(entry);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Page page(int slot) {
+        return pages[slot >>> PAGE_SHIFT];
+    }
+
+    private static int offset(int slot) {
+        return (slot & PAGE_MASK) * RECORD_SIZE;
+    }
+
+    private int nextSlot() {
+        final int slot = slotCount;
+        if ((slot >>> PAGE_SHIFT) == pages.length) {
+            final Page[] grown = Arrays.copyOf(pages, pages.length + 1);
+            try {
+                grown[pages.length] = mapPage(pages.length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pages = grown;
+        }
+        slotCount = slot + 1;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    // 파일 크기를 넘는 영역을 READ_WRITE로 매핑하면 파일이 그만큼 늘어난다.
+    private Page mapPage(int index) throws IOException {
+        return new Page(recordChannel.map(FileChannel.MapMode.READ_WRITE, index * PAGE_BYTES, PAGE_BYTES));
+    }
+
+    private static final class Page {
+        private final MappedByteBuffer records;
+        private final String[] brandNames = new String[PAGE_SIZE];
+
+        private Page(MappedByteBuffer records) {
+            this.records = records;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// 브랜드별 가격 행을 힙 대신 메모리 맵 파일에 두는 저장소. 락과 인덱스는 InMemoryProductRepositoryImpl과 같다.
+// 카테고리 가격 인덱스와 브랜드 총액 인덱스는 힙에 있으며, 시작할 때 파일의 레코드로 다시 만든다.
+@Repository
+@Profile("mmap")
+public class MappedProductRepositoryImpl extends InMemoryProductRepositoryImpl {
+
+    private final MappedPriceStore mappedPriceStore;
+
+    @Autowired
+    public MappedProductRepositoryImpl(@Value("${sinsa.mmap.path:data/mmap}") String path) throws IOException {
+        this(new MappedPriceStore(Path.of(path)));
+    }
+
+    private MappedProductRepositoryImpl(MappedPriceStore mappedPriceStore) {
+        super(mappedPriceStore);
+        this.mappedPriceStore = mappedPriceStore;
+    }
+
+    @Override
+    public boolean isOpenedFromStorage() {
+        return mappedPriceStore.isOpenedExisting();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        mappedPriceStore.close();
+    }
+}
@@ -0,0 +1,16 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+// 브랜드별 가격과 카테고리 마스크를 힙 밖(direct ByteBuffer)에 두는 저장소. 락과 인덱스는 InMemoryProductRepositoryImpl과 같다.
+// mmap 프로필과 달리 파일에 기록하지 않으므로 재시작하면 스냅샷이나 저널로 복원한다.
+// 브랜드 수 * 72바이트의 direct 메모리를 사용하므로 -XX:MaxDirectMemorySize가 그보다 커야 한다.
+@Repository
+@Profile("offheap")
+public class OffHeapProductRepositoryImpl extends InMemoryProductRepositoryImpl {
+
+    public OffHeapProductRepositoryImpl() {
+        super(new PriceMatrix(true));
+    }
+}
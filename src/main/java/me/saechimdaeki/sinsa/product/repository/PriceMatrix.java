@@ -0,0 +1,297 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntConsumer;
+
+// 브랜드마다 slot 하나를 배정하고, 가격은 slot * 카테고리 수 + ordinal 위치의 long 배열에 저장한다.
+// 한 브랜드의 가격 8개가 연속된 64바이트에 놓이고, 상품 존재 여부는 slot별 8비트 마스크로 표현한다.
+// 키(브랜드)별 락으로 서로 다른 브랜드의 쓰기가 동시에 실행될 수 있으므로,
+// 행렬은 고정 크기 페이지 단위로 늘려 기존 행을 옮기지 않고 slot 배정/반납만 내부 락으로 보호한다.
+// 한 slot의 행은 그 브랜드의 락을 잡은 스레드만 수정한다.
+// offHeap이면 가격과 카테고리 마스크를 direct ByteBuffer 페이지에 두어 GC가 옮기거나 세지 않게 한다. 브랜드 이름은 힙에 남는다.
+class PriceMatrix implements PriceStore {
+
+    private static final Category[] CATEGORIES = Category.values();
+    private static final int CATEGORY_COUNT = CATEGORIES.length;
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final Map<String, Integer> slotByBrandName = new ConcurrentHashMap<>();
+
+    private final ReentrantLock allocationLock = new ReentrantLock();
+
+    private volatile Page[] pages = new Page[0];
+
+    // 삭제된 브랜드의 slot은 재사용하여 행렬을 조밀하게 유지한다. 아래 필드는 allocationLock으로 보호한다.
+    private int[] freeSlots = new int[PAGE_SIZE];
+    private int freeSlotCount;
+    private volatile int slotCount;
+
+    private final boolean offHeap;
+
+    PriceMatrix() {
+        this(false);
+    }
+
+    PriceMatrix(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    @Override
+    public int slotOf(String brandName) {
+        final Integer slot = slotByBrandName.get(brandName);
+        return slot == null ? NO_SLOT : slot;
+    }
+
+    @Override
+    public int addBrand(String brandName) {
+        final int saved = slotOf(brandName);
+        if (saved != NO_SLOT) {
+            return saved;
+        }
+        final int slot;
+        allocationLock.lock();
+        try {
+            slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : nextSlot();
+        } finally {
+            allocationLock.unlock();
+        }
+        final Page page = page(slot);
+        page.brandNames[slot & PAGE_MASK] = brandName;
+        page.mask(slot & PAGE_MASK, 0);
+        slotByBrandName.put(brandName, slot);
+        return slot;
+    }
+
+    @Override
+    public void removeBrand(int slot) {
+        final Page page = page(slot);
+        slotByBrandName.remove(page.brandNames[slot & PAGE_MASK]);
+        page.brandNames[slot & PAGE_MASK] = null;
+        page.mask(slot & PAGE_MASK, 0);
+        allocationLock.lock();
+        try {
+            if (freeSlotCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeSlotCount++] = slot;
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    @Override
+    public String brandName(int slot) {
+        return page(slot).brandNames[slot & PAGE_MASK];
+    }
+
+    @Override
+    public int categoryMask(int slot) {
+        return page(slot).mask(slot & PAGE_MASK);
+    }
+
+    @Override
+    public boolean hasProduct(int slot, Category category) {
+        return (categoryMask(slot) & category.mask()) != 0;
+    }
+
+    @Override
+    public long price(int slot, Category category) {
+        return page(slot).price((slot & PAGE_MASK) * CATEGORY_COUNT + category.ordinal());
+    }
+
+    @Override
+    public void putPrice(int slot, Category category, long price) {
+        final Page page = page(slot);
+        final int row = slot & PAGE_MASK;
+        page.putPrice(row * CATEGORY_COUNT + category.ordinal(), price);
+        page.mask(row, page.mask(row) | category.mask());
+    }
+
+    @Override
+    public void removePrice(int slot, Category category) {
+        final Page page = page(slot);
+        final int row = slot & PAGE_MASK;
+        page.mask(row, page.mask(row) & ~category.mask());
+    }
+
+    @Override
+    public Brand toBrand(int slot) {
+        final Page page = page(slot);
+        final int row = slot & PAGE_MASK;
+        final String brandName = page.brandNames[row];
+        final int mask = page.mask(row);
+        final List<Product> products = new ArrayList<>(Integer.bitCount(mask));
+        final int offset = row * CATEGORY_COUNT;
+        for (int ordinal = 0; ordinal < CATEGORY_COUNT; ordinal++) {
+            if ((mask & (1 << ordinal)) != 0) {
+                products.add(new Product(brandName, CATEGORIES[ordinal], page.price(offset + ordinal)));
+            }
+        }
+        return new Brand(brandName, products);
+    }
+
+    @Override
+    public void forEachSlot(IntConsumer action) {
+        final int count = slotCount;
+        for (int slot = 0; slot < count; slot++) {
+            if (brandName(slot) != null) {
+                action.accept(slot);
+            }
+        }
+    }
+
+    @Override
+    public List<Brand> toBrands() {
+        final List<Brand> brands = new ArrayList<>(slotByBrandName.size());
+        final int count = slotCount;
+        for (int slot = 0; slot < count; slot++) {
+            if (brandName(slot) != null) {
+                brands.add(toBrand(slot));
+            }
+        }
+        return brands;
+    }
+
+    // 행을 그대로 복사한다.
+    @Override
+    public CatalogImage toImage(long checkpoint) {
+        final int brandCount = slotByBrandName.size();
+        final String[] brandNames = new String[brandCount];
+        final byte[] masks = new byte[brandCount];
+        final long[] prices = new long[brandCount * CATEGORY_COUNT];
+        final int count = slotCount;
+        int brand = 0;
+        for (int slot = 0; slot < count; slot++) {
+            final Page page = page(slot);
+            final int row = slot & PAGE_MASK;
+            if (page.brandNames[row] == null) {
+                continue;
+            }
+            brandNames[brand] = page.brandNames[row];
+            masks[brand] = (byte) page.mask(row);
+            page.copyRow(row, prices, brand * CATEGORY_COUNT);
+            brand++;
+        }
+        return new CatalogImage(brandNames, masks, prices, checkpoint);
+    }
+
+    @Override
+    public void clear() {
+        slotByBrandName.clear();
+        allocationLock.lock();
+        try {
+            pages = new Page[0];
+            freeSlotCount = 0;
+            slotCount = 0;
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    private Page page(int slot) {
+        return pages[slot >>> PAGE_SHIFT];
+    }
+
+    private int nextSlot() {
+        final int slot = slotCount;
+        if ((slot >>> PAGE_SHIFT) == pages.length) {
+            final Page[] grown = Arrays.copyOf(pages, pages.length + 1);
+            grown[pages.length] = offHeap ? new DirectPage() : new HeapPage();
+            pages = grown;
+        }
+        slotCount = slot + 1;
+        return slot;
+    }
+
+    // 가격은 row * 카테고리 수 + ordinal 위치에 저장한다.
+    private abstract static class Page {
+        protected final String[] brandNames = new String[PAGE_SIZE];
+
+        abstract long price(int index);
+
+        abstract void putPrice(int index, long price);
+
+        abstract int mask(int row);
+
+        abstract void mask(int row, int mask);
+
+        abstract void copyRow(int row, long[] target, int offset);
+    }
+
+    private static final class HeapPage extends Page {
+        private final long[] prices = new long[PAGE_SIZE * CATEGORY_COUNT];
+        private final byte[] categoryMasks = new byte[PAGE_SIZE];
+
+        @Override
+        long price(int index) {
+            return prices[index];
+        }
+
+        @Override
+        void putPrice(int index, long price) {
+            prices[index] = price;
+        }
+
+        @Override
+        int mask(int row) {
+            return categoryMasks[row] & 0xFF;
+        }
+
+        @Override
+        void mask(int row, int mask) {
+            categoryMasks[row] = (byte) mask;
+        }
+
+        @Override
+        void copyRow(int row, long[] target, int offset) {
+            System.arraycopy(prices, row * CATEGORY_COUNT, target, offset, CATEGORY_COUNT);
+        }
+    }
+
+    // 가격 열과 마스크 열을 각각 direct ByteBuffer로 할당한다. 페이지가 더 이상 참조되지 않으면 GC가 버퍼를 정리할 때 해제된다.
+    private static final class DirectPage extends Page {
+        private final LongBuffer prices = ByteBuffer.allocateDirect(PAGE_SIZE * CATEGORY_COUNT * Long.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+        private final ByteBuffer categoryMasks = ByteBuffer.allocateDirect(PAGE_SIZE);
+
+        @Override
+        long price(int index) {
+            return prices.get(index);
+        }
+
+        @Override
+        void putPrice(int index, long price) {
+            prices.put(index, price);
+        }
+
+        @Override
+        int mask(int row) {
+            return categoryMasks.get(row) & 0xFF;
+        }
+
+        @Override
+        void mask(int row, int mask) {
+            categoryMasks.put(row, (byte) mask);
+        }
+
+        @Override
+        void copyRow(int row, long[] target, int offset) {
+            prices.get(row * CATEGORY_COUNT, target, offset, CATEGORY_COUNT);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+// 브랜드마다 slot(0부터 조밀하게 배정되는 브랜드 id) 하나를 배정하고 slot별로 카테고리 마스크와 가격 8개를 보관하는 저장소.
+// 브랜드 이름 사전 역할도 하여, 저장소의 인덱스는 이름 대신 slot을 사용한다.
+// 한 slot의 행은 그 브랜드의 락을 잡은 스레드만 수정하고, slot 배정/반납은 구현체가 내부에서 보호한다.
+interface PriceStore {
+
+    int NO_SLOT = -1;
+
+    int slotOf(String brandName);
+
+    int addBrand(String brandName);
+
+    void removeBrand(int slot);
+
+    String brandName(int slot);
+
+    int categoryMask(int slot);
+
+    boolean hasProduct(int slot, Category category);
+
+    long price(int slot, Category category);
+
+    void putPrice(int slot, Category category, long price);
+
+    void removePrice(int slot, Category category);
+
+    Brand toBrand(int slot);
+
+    // 아래 메서드는 모든 브랜드를 읽으므로 쓰기와 배타적인 락 안에서 호출해야 한다.
+    List<Brand> toBrands();
+
+    CatalogImage toImage(long checkpoint);
+
+    void forEachSlot(IntConsumer action);
+
+    // 카탈로그 전체 쓰기 락 안에서만 호출한다.
+    void clear();
+}
@@ -1,10 +1,17 @@
 package me.saechimdaeki.sinsa.product.repository;
 
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
 import me.saechimdaeki.sinsa.product.domain.Brand;
 import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.LowestPriceChanges;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.PriceRangePage;
 import me.saechimdaeki.sinsa.product.domain.Product;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.LongSupplier;
 
 public interface ProductRepository {
 
@@ -18,9 +25,56 @@ public interface ProductRepository {
 
     Product addProduct(Product product);
 
+    // 상품 여러 개를 한 번의 쓰기 락 안에서 추가한다. 같은 브랜드, 카테고리의 상품은 덮어씌워진다.
+    int addProducts(List<Product> products);
+
+    // 추가, 수정, 삭제 연산을 한 번의 쓰기 락 안에서 순서대로 적용한다.
+    // 하나라도 실패하면 아무것도 반영하지 않고 해당 연산의 예외를 던진다.
+    int applyBatch(List<BatchOperation> operations);
+
     Brand addBrand(Brand brand);
 
     void clearAllData();
 
     Brand getBrand(String brandName);
+
+    // 카테고리마다 최저가 상품 하나씩, 카테고리 순서대로 반환한다. 상품이 없는 카테고리는 제외된다.
+    List<Product> getLowestPricedProducts();
+
+    CategoryPriceRange getCategoryPriceRange(Category category);
+
+    // 카테고리 상품을 가격 순서대로 최대 limit개 반환한다. 가격이 같은 상품의 순서는 구현에 따른다.
+    List<Product> getRankedProducts(Category category, PriceOrder order, int limit);
+
+    // 가격이 minPrice 이상 maxPrice 이하인 카테고리 상품을 가격 순서대로 offset부터 limit개 반환한다.
+    PriceRangePage getProductsInPriceRange(Category category, long minPrice, long maxPrice, int offset, int limit);
+
+    // 가격 구간의 상품 수. 상품 목록을 만들지 않고 센다.
+    long countProductsInPriceRange(Category category, long minPrice, long maxPrice);
+
+    // 모든 카테고리 상품을 가진 브랜드 중 총액이 가장 낮은 브랜드
+    Optional<Brand> getBrandWithLowestTotalPrice();
+
+    // sinceVersion 이후로 바뀐 카테고리 최저가와 최저 총액 브랜드. sinceVersion이 음수이면 전체를 반환한다.
+    LowestPriceChanges getLowestPriceChanges(long sinceVersion);
+
+    // 카탈로그 전체를 원시 배열 이미지로 복사한다. 복사하는 동안만 쓰기를 막으며,
+    // checkpoint는 쓰기가 막힌 상태에서 호출되어 그 값이 이미지와 같은 시점을 가리킨다.
+    CatalogImage exportImage(LongSupplier checkpoint);
+
+    // 기존 데이터를 모두 지우고 이미지의 카탈로그로 대체한다.
+    void importImage(CatalogImage image);
+
+    // 쓰기가 반영될 때마다 증가하는 카탈로그 버전. 락 없이 읽을 수 있으며, 조회 전에 읽은 버전보다 오래된 데이터는 조회되지 않는다.
+    long getVersion();
+
+    // 해당 카테고리의 상품이 바뀔 때마다 증가하는 버전
+    long getCategoryVersion(Category category);
+
+    // 조회 메서드(exportImage 제외)가 락을 기다리지 않으면 true. 리액티브 라우터는 이 경우 조회를 이벤트 루프에서 바로 실행한다.
+    boolean isNonBlockingRead();
+
+    // 이전 실행에서 기록한 저장소 파일을 그대로 열었으면 true(mmap). 비어 있더라도 그 상태를 유지해야 하므로
+    // 시작할 때 초기 데이터, 스냅샷, 저널로 다시 채우지 않는다.
+    boolean isOpenedFromStorage();
 }
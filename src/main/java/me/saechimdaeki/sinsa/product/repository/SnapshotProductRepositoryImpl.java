@@ -0,0 +1,297 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.saechimdaeki.sinsa.common.annotation.ReadLock;
+import me.saechimdaeki.sinsa.common.annotation.WriteLock;
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.LowestPriceChanges;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.PriceRangePage;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.exception.ErrorCode;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+// 쓰기마다 새 불변 카탈로그 버전을 만들어 한 번에 교체한다.
+// 읽기는 현재 버전을 참조만 하므로 락을 잡지 않고, 쓰기끼리만 @WriteLock으로 직렬화된다.
+// 새 버전의 조회 결과는 브랜드 수가 sinsa.parallel-scan.threshold 이상이면 전용 ForkJoinPool에서 병렬로 계산한다.
+@Repository
+@Profile("snapshot")
+@Slf4j
+public class SnapshotProductRepositoryImpl implements ProductRepository {
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    private final CatalogScanner scanner;
+
+    public SnapshotProductRepositoryImpl(@Value("${sinsa.parallel-scan.parallelism:0}") int parallelism,
+                                         @Value("${sinsa.parallel-scan.threshold:50000}") int parallelThreshold) {
+        this.scanner = CatalogScanner.parallel(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), parallelThreshold);
+    }
+
+    @PreDestroy
+    public void close() {
+        scanner.close();
+    }
+
+    @Override
+    @WriteLock
+    public Brand addBrand(Brand brand) {
+        final Map<String, Brand> brands = snapshot.copyBrands();
+        final Brand saved = brands.put(brand.getBrandName(), CatalogSnapshot.immutableBrand(brand.getBrandName(), brand.getProducts()));
+        publish(brands, categoryMask(saved) | CatalogVersion.maskOf(brand.getProducts()));
+        return brand;
+    }
+
+    @Override
+    @WriteLock
+    public void clearAllData() {
+        publish(new LinkedHashMap<>(), Category.ALL_CATEGORIES_MASK);
+    }
+
+    @Override
+    public Brand getBrand(String brandName) {
+        return snapshot.getBrand(brandName);
+    }
+
+    @Override
+    @WriteLock
+    public Product addProduct(Product product) {
+        final Map<String, Brand> brands = snapshot.copyBrands();
+        final Brand brand = brands.get(product.getBrandName());
+        final List<Product> products = new ArrayList<>();
+        // 새 상품을 먼저 넣어 같은 카테고리의 기존 상품을 덮어씌운다.
+        products.add(product);
+        if (brand != null) {
+            products.addAll(brand.getProducts());
+        }
+        brands.put(product.getBrandName(), CatalogSnapshot.immutableBrand(product.getBrandName(), products));
+        publish(brands, product.getCategory().mask());
+        return product;
+    }
+
+    // 스냅샷을 한 번만 복사하고 발행한다.
+    @Override
+    @WriteLock
+    public int addProducts(List<Product> products) {
+        final Map<String, Brand> brands = snapshot.copyBrands();
+        final Map<String, List<Product>> productsByBrand = new LinkedHashMap<>();
+        for (Product product : products) {
+            // 나중에 들어온 상품이 앞에 오도록 하여 같은 카테고리의 이전 상품을 덮어씌운다.
+            productsByBrand.computeIfAbsent(product.getBrandName(), key -> new ArrayList<>()).add(0, product);
+        }
+        productsByBrand.forEach((brandName, brandProducts) -> {
+            final Brand brand = brands.get(brandName);
+            if (brand != null) {
+                brandProducts.addAll(brand.getProducts());
+            }
+            brands.put(brandName, CatalogSnapshot.immutableBrand(brandName, brandProducts));
+        });
+        publish(brands, CatalogVersion.maskOf(products));
+        return products.size();
+    }
+
+    @Override
+    @WriteLock
+    public int applyBatch(List<BatchOperation> operations) {
+        final Map<String, Brand> brands = snapshot.copyBrands();
+        final BatchPlan plan = BatchPlan.of(operations, new BatchPlan.CatalogView() {
+            @Override
+            public boolean hasBrand(String brandName) {
+                return brands.containsKey(brandName);
+            }
+
+            @Override
+            public boolean hasProduct(String brandName, Category category) {
+                final Brand brand = brands.get(brandName);
+                return brand != null && findProduct(brand, category).isPresent();
+            }
+        });
+        plan.getChanges().forEach((brandName, changes) -> {
+            final List<Product> products = new ArrayList<>();
+            changes.forEach((category, price) -> {
+                if (price != null) {
+                    products.add(new Product(brandName, category, price));
+                }
+            });
+            final Brand brand = brands.get(brandName);
+            if (brand != null) {
+                brand.getProducts().stream()
+                        .filter(p -> !changes.containsKey(p.getCategory()))
+                        .forEach(products::add);
+            }
+            brands.put(brandName, CatalogSnapshot.immutableBrand(brandName, products));
+        });
+        publish(brands, plan.getCategoryMask());
+        return operations.size();
+    }
+
+    @Override
+    @WriteLock
+    public Product updateProduct(String brandName, Product product) {
+        final Map<String, Brand> brands = snapshot.copyBrands();
+        final Brand brand = brands.get(brandName);
+        if (brand == null) {
+            throw new ProductException(ErrorCode.BRAND_NOT_FOUND);
+        }
+        if (findProduct(brand, product.getCategory()).isEmpty()) {
+            throw new ProductException(ErrorCode.PRODUCT_NOT_FOUND);
+        }
+
+        final List<Product> products = new ArrayList<>();
+        products.add(product);
+        products.addAll(brand.getProducts());
+        brands.put(brandName, CatalogSnapshot.immutableBrand(brandName, products));
+        publish(brands, product.getCategory().mask());
+        return product;
+    }
+
+    @Override
+    @WriteLock
+    public void deleteProduct(String brandName, Category category) {
+        final Map<String, Brand> brands = snapshot.copyBrands();
+        final Brand brand = brands.get(brandName);
+        if (brand == null) {
+            throw new ProductException(ErrorCode.BRAND_NOT_FOUND);
+        }
+        if (findProduct(brand, category).isEmpty()) {
+            throw new ProductException(ErrorCode.PRODUCT_NOT_FOUND);
+        }
+
+        final List<Product> products = brand.getProducts().stream()
+                .filter(p -> p.getCategory() != category)
+                .toList();
+        brands.put(brandName, new Brand(brandName, products));
+        publish(brands, category.mask());
+    }
+
+    @Override
+    public List<Brand> getAllBrands() {
+        return snapshot.getAllBrands();
+    }
+
+    @Override
+    public List<Product> getLowestPricedProducts() {
+        return snapshot.getLowestPricedProducts();
+    }
+
+    @Override
+    public CategoryPriceRange getCategoryPriceRange(Category category) {
+        return snapshot.getCategoryPriceRange(category);
+    }
+
+    @Override
+    public List<Product> getRankedProducts(Category category, PriceOrder order, int limit) {
+        return snapshot.getRankedProducts(category, order, limit);
+    }
+
+    @Override
+    public PriceRangePage getProductsInPriceRange(Category category, long minPrice, long maxPrice, int offset, int limit) {
+        return snapshot.getProductsInPriceRange(category, minPrice, maxPrice, offset, limit);
+    }
+
+    @Override
+    public long countProductsInPriceRange(Category category, long minPrice, long maxPrice) {
+        return snapshot.countProductsInPriceRange(category, minPrice, maxPrice);
+    }
+
+    @Override
+    public Optional<Brand> getBrandWithLowestTotalPrice() {
+        return snapshot.getBrandWithLowestTotalPrice();
+    }
+
+    @Override
+    public LowestPriceChanges getLowestPriceChanges(long sinceVersion) {
+        return snapshot.getLowestPriceChanges(sinceVersion);
+    }
+
+    @Override
+    @WriteLock
+    public void deleteBrand(String brandName) {
+        final Map<String, Brand> brands = snapshot.copyBrands();
+        final Brand removed = brands.remove(brandName);
+        if (removed == null) {
+            throw new ProductException(ErrorCode.NO_BRAND_DELETED);
+        }
+        publish(brands, categoryMask(removed));
+    }
+
+    // 스냅샷은 불변이지만 checkpoint가 같은 시점을 가리키도록 쓰기를 막고 읽는다.
+    @Override
+    @ReadLock
+    public CatalogImage exportImage(LongSupplier checkpoint) {
+        final CatalogSnapshot current = snapshot;
+        final long mark = checkpoint.getAsLong();
+        final List<Brand> brands = current.getAllBrands();
+        final String[] brandNames = new String[brands.size()];
+        final byte[] masks = new byte[brands.size()];
+        final long[] prices = new long[brands.size() * CatalogImage.CATEGORY_COUNT];
+        for (int i = 0; i < brands.size(); i++) {
+            brandNames[i] = brands.get(i).getBrandName();
+            for (Product product : brands.get(i).getProducts()) {
+                masks[i] |= (byte) product.getCategory().mask();
+                prices[i * CatalogImage.CATEGORY_COUNT + product.getCategory().ordinal()] = product.getPrice();
+            }
+        }
+        return new CatalogImage(brandNames, masks, prices, mark);
+    }
+
+    @Override
+    @WriteLock
+    public void importImage(CatalogImage image) {
+        final Map<String, Brand> brands = new LinkedHashMap<>();
+        for (int i = 0; i < image.getBrandCount(); i++) {
+            final Brand brand = image.toBrand(i);
+            brands.put(brand.getBrandName(), CatalogSnapshot.immutableBrand(brand.getBrandName(), brand.getProducts()));
+        }
+        publish(brands, Category.ALL_CATEGORIES_MASK);
+    }
+
+    @Override
+    public long getVersion() {
+        return catalogVersion.current();
+    }
+
+    @Override
+    public long getCategoryVersion(Category category) {
+        return catalogVersion.of(category);
+    }
+
+    @Override
+    public boolean isNonBlockingRead() {
+        return true;
+    }
+
+    @Override
+    public boolean isOpenedFromStorage() {
+        return false;
+    }
+
+    // 새 스냅샷을 발행한 뒤에 버전을 올린다. 쓰기는 직렬화되어 있으므로 스냅샷의 버전은 올라갈 버전과 같다.
+    private void publish(Map<String, Brand> brands, int categoryMask) {
+        snapshot = new CatalogSnapshot(brands, snapshot, catalogVersion.current() + 1, scanner);
+        catalogVersion.advance(categoryMask);
+    }
+
+    private static int categoryMask(Brand brand) {
+        return brand == null ? 0 : CatalogVersion.maskOf(brand.getProducts());
+    }
+
+    private Optional<Product> findProduct(Brand brand, Category category) {
+        return brand.getProducts().stream()
+                .filter(p -> p.getCategory() == category)
+                .findFirst();
+    }
+}
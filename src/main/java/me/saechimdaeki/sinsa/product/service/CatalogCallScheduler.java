@@ -0,0 +1,72 @@
+package me.saechimdaeki.sinsa.product.service;
+
+import jakarta.annotation.PreDestroy;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+// 리액티브 라우터에서 서비스를 호출할 때 사용한다. @ReadLock/@WriteLock을 기다릴 수 있는 호출은 가상 스레드에서 실행하여
+// 이벤트 루프 스레드가 락 대기로 멈추지 않게 한다. 저장소 조회가 락을 잡지 않으면(snapshot 프로필) 조회는 이벤트 루프에서 바로 실행한다.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class CatalogCallScheduler {
+
+    // 요청 본문을 읽을 때 미리 받아 두는 DataBuffer 수
+    private static final int BODY_PREFETCH = 16;
+
+    private final boolean nonBlockingRead;
+
+    private final Scheduler scheduler = Schedulers.fromExecutorService(
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("catalog-call-", 0).factory()), "catalog-call");
+
+    public CatalogCallScheduler(ProductRepository productRepository) {
+        this.nonBlockingRead = productRepository.isNonBlockingRead();
+    }
+
+    public <T> Mono<T> read(Callable<T> call) {
+        final Mono<T> result = Mono.fromCallable(call);
+        return nonBlockingRead ? result : result.subscribeOn(scheduler);
+    }
+
+    public <T> Mono<T> write(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(scheduler);
+    }
+
+    public Mono<Void> write(Runnable call) {
+        return Mono.fromRunnable(call).subscribeOn(scheduler).then();
+    }
+
+    // 요청 본문을 모두 모으지 않고 도착하는 대로 읽는 InputStream. 데이터를 기다리며 호출 스레드를 멈추므로
+    // write()로 실행하는 호출 안에서만 읽어야 한다. 닫으면 남은 본문을 읽어 버퍼를 반환한다.
+    public static InputStream inputStream(Flux<DataBuffer> body) {
+        final Iterator<DataBuffer> buffers = body.toIterable(BODY_PREFETCH).iterator();
+        return new SequenceInputStream(new Enumeration<>() {
+            @Override
+            public boolean hasMoreElements() {
+                return buffers.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return buffers.next().asInputStream(true);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.dispose();
+    }
+}
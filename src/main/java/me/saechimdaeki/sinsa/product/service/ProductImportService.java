@@ -0,0 +1,288 @@
+package me.saechimdaeki.sinsa.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.dto.ImportError;
+import me.saechimdaeki.sinsa.product.dto.ImportResponse;
+import me.saechimdaeki.sinsa.product.dto.ProductRequest;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// 상품 피드(NDJSON, CSV)를 요청 본문에서 한 줄씩 읽어 batchSize개씩 저장소에 반영한다.
+// 한 번에 메모리에 두는 것은 현재 배치와 앞쪽 오류 일부뿐이므로 피드 크기와 무관하게 메모리 사용량이 일정하다.
+// 한 행도 maxLineLength까지만 버퍼링하며, 그보다 긴 행은 나머지를 읽어 버리고 거절한다.
+// 잘못된 행은 거절하고 계속 진행하며, 이미 반영된 배치는 이후 배치가 실패해도 되돌리지 않는다.
+// 배치 반영이 실패하면(락 획득 실패, 저널 기록 실패 등) 그 배치의 행을 사유와 함께 거절하고 다음 배치를 계속 읽으므로,
+// 응답은 항상 모든 행이 반영되었는지 거절되었는지를 센 요약이다.
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String CSV_HEADER = "brandName,category,price";
+
+    private final ProductRepository productRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final int batchSize;
+
+    private final int maxLineLength;
+
+    public ProductImportService(ProductRepository productRepository,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                @Value("${sinsa.import.batch-size:1000}") int batchSize,
+                                @Value("${sinsa.import.max-line-length:8192}") int maxLineLength) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxLineLength = maxLineLength;
+    }
+
+    public ImportResponse importNdjson(InputStream body) throws IOException {
+        return importRows(body, false);
+    }
+
+    // brandName,category,price 순서의 CSV. 첫 줄이 헤더면 건너뛴다.
+    // RFC 4180과 같이 큰따옴표로 감싼 필드에는 쉼표와 큰따옴표("")를 쓸 수 있지만, 필드 안의 줄바꿈은 지원하지 않는다.
+    public ImportResponse importCsv(InputStream body) throws IOException {
+        return importRows(body, true);
+    }
+
+    private ImportResponse importRows(InputStream body, boolean csv) throws IOException {
+        final ImportProgress progress = new ImportProgress();
+        final List<Product> batch = new ArrayList<>(batchSize);
+        final long[] batchLines = new long[batchSize];
+        try (LineReader reader = new LineReader(new InputStreamReader(body, StandardCharsets.UTF_8), maxLineLength)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (reader.isTruncated()) {
+                    progress.reject(lineNumber, "line exceeds " + maxLineLength + " characters");
+                    continue;
+                }
+                if (line.isBlank() || (csv && lineNumber == 1 && CSV_HEADER.equalsIgnoreCase(line.strip()))) {
+                    continue;
+                }
+                try {
+                    final Product product = toProduct(csv ? parseCsv(line) : parseJson(line));
+                    batchLines[batch.size()] = lineNumber;
+                    batch.add(product);
+                } catch (RejectedRowException | ProductException e) {
+                    progress.reject(lineNumber, e.getMessage());
+                }
+                if (batch.size() == batchSize) {
+                    applyBatch(batch, batchLines, progress);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            applyBatch(batch, batchLines, progress);
+        }
+        log.info("Imported products applied: {}, rejected: {}, batches: {}", progress.applied, progress.rejected, progress.batches);
+        return new ImportResponse(progress.applied, progress.rejected, progress.batches, progress.errors);
+    }
+
+    private void applyBatch(List<Product> batch, long[] batchLines, ImportProgress progress) {
+        try {
+            progress.apply(productRepository.addProducts(batch));
+        } catch (ProductException e) {
+            log.warn("Import batch of {} rows failed: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                progress.reject(batchLines[i], "batch not applied: " + e.getMessage());
+            }
+        }
+        batch.clear();
+    }
+
+    // 객체가 아닌 행(null, 배열, 숫자 등)도 malformed json으로 거절한다. null은 readValue가 예외 없이 null을 반환한다.
+    private ProductRequest parseJson(String line) {
+        final ProductRequest productRequest;
+        try {
+            productRequest = objectMapper.readValue(line, ProductRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new RejectedRowException("malformed json");
+        }
+        if (productRequest == null) {
+            throw new RejectedRowException("malformed json");
+        }
+        return productRequest;
+    }
+
+    private ProductRequest parseCsv(String line) {
+        final List<String> columns = splitCsv(line);
+        if (columns.size() != 3) {
+            throw new RejectedRowException("expected 3 columns: " + CSV_HEADER);
+        }
+        try {
+            return new ProductRequest(columns.get(0), columns.get(1), Long.parseLong(columns.get(2)));
+        } catch (NumberFormatException e) {
+            throw new RejectedRowException("price must be a number");
+        }
+    }
+
+    // 필드 앞뒤 공백은 지운다. 큰따옴표로 감싼 필드는 따옴표 안의 내용을 그대로 쓴다.
+    private static List<String> splitCsv(String line) {
+        final List<String> fields = new ArrayList<>(3);
+        final StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            while (i < line.length() && line.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new RejectedRowException("unterminated quoted field");
+                    }
+                    final char c = line.charAt(i++);
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        break;
+                    }
+                }
+                while (i < line.length() && line.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new RejectedRowException("unexpected character after quoted field");
+                }
+                fields.add(field.toString());
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+                fields.add(field.toString().strip());
+            }
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+
+    // 단건 등록 API와 같은 검증 규칙을 적용한다.
+    private Product toProduct(ProductRequest productRequest) {
+        final Set<ConstraintViolation<ProductRequest>> violations = validator.validate(productRequest);
+        if (!violations.isEmpty()) {
+            throw new RejectedRowException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return productRequest.toDomain();
+    }
+
+    private static final class ImportProgress {
+        private long applied;
+        private long rejected;
+        private int batches;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        private void apply(int count) {
+            applied += count;
+            batches++;
+        }
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, reason));
+            }
+        }
+    }
+
+    // BufferedReader.readLine과 같이 \n, \r, \r\n으로 행을 나누지만, 한 행을 maxLength 문자까지만 버퍼링한다.
+    // 더 긴 행은 나머지를 읽어 버리고 잘린 내용을 반환하며, isTruncated()가 true가 된다.
+    private static final class LineReader implements Closeable {
+
+        private final Reader reader;
+        private final int maxLength;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        private boolean truncated;
+
+        private LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            truncated = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return line.isEmpty() && !truncated ? null : line.toString();
+                    }
+                }
+                final char c = buffer[position++];
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == '\r') {
+                    skipLineFeed = c == '\r';
+                    return line.toString();
+                }
+                if (line.length() < maxLength) {
+                    line.append(c);
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        private boolean isTruncated() {
+            return truncated;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class RejectedRowException extends RuntimeException {
+        private RejectedRowException(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+}
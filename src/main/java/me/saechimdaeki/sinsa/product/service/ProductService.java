@@ -3,7 +3,12 @@ package me.saechimdaeki.sinsa.product.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.CatalogEpoch;
 import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.LowestPriceChanges;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.PriceRangePage;
 import me.saechimdaeki.sinsa.product.domain.Product;
 import me.saechimdaeki.sinsa.product.dto.*;
 import me.saechimdaeki.sinsa.product.exception.ErrorCode;
@@ -12,45 +17,131 @@ import me.saechimdaeki.sinsa.product.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final String LOWEST_CATEGORY = "lowest-category";
+    private static final String LOWEST_BRAND = "lowest-brand";
+    private static final String CATEGORY_PRICE = "category-price";
+    private static final String RANKED_BRANDS = "ranked-brands";
+
+    // 카테고리 순위 조회에서 한 번에 반환할 수 있는 최대 브랜드 수
+    public static final int MAX_RANK_LIMIT = 100;
+
     private final ProductRepository productRepository;
 
+    private final QueryResultCache queryResultCache;
+
+    // 카테고리별 최저가와 최저가 브랜드는 모든 카테고리에 의존하므로 전체 버전으로,
+    // 카테고리 가격 정보는 해당 카테고리 버전으로 캐시한다.
     public LowestCategoryResponse getLowestPricedProductsByCategory() {
+        return queryResultCache.get(LOWEST_CATEGORY, productRepository.getVersion(), this::findLowestPricedProductsByCategory);
+    }
+
+    public LowestBrandResponse getBrandWithLowestTotalPrice() {
+        return queryResultCache.get(LOWEST_BRAND, productRepository.getVersion(), this::findBrandWithLowestTotalPrice);
+    }
+
+    // sinceVersion 이후로 최저가가 바뀐 카테고리만 반환하며, 바뀐 것이 없으면 빈 값을 반환한다.
+    // sinceVersion이 다른 epoch(재시작 전, 다른 노드)의 토큰이면 같은 번호라도 비교하지 않고 전체를 반환한다.
+    public Optional<LowestCategoryChangesResponse> getLowestPricedProductsByCategorySince(String sinceVersion) {
+        final LowestPriceChanges changes = productRepository.getLowestPriceChanges(CatalogEpoch.versionOf(sinceVersion));
+        if (!changes.isCategoryChanged()) {
+            return Optional.empty();
+        }
+        return Optional.of(new LowestCategoryChangesResponse(
+                CatalogEpoch.token(changes.getVersion()),
+                changes.getChangedProducts().stream().map(ProductResponse::from).toList(),
+                changes.getEmptiedCategories().stream().map(Category::name).toList(),
+                changes.getLowestTotalPrice()
+        ));
+    }
+
+    public Optional<LowestBrandChangesResponse> getBrandWithLowestTotalPriceSince(String sinceVersion) {
+        final LowestPriceChanges changes = productRepository.getLowestPriceChanges(CatalogEpoch.versionOf(sinceVersion));
+        if (!changes.isLowestBrandChanged()) {
+            return Optional.empty();
+        }
+        if (changes.getLowestBrand() == null) {
+            throw new ProductException(ErrorCode.NO_BRAND_HAS_ALL_CATEGORIES);
+        }
+        final LowestBrandResponse lowestBrand = toLowestBrandResponse(changes.getLowestBrand());
+        return Optional.of(new LowestBrandChangesResponse(
+                CatalogEpoch.token(changes.getVersion()),
+                lowestBrand.getBrand(),
+                lowestBrand.getCategories(),
+                lowestBrand.getTotalPrice()
+        ));
+    }
+
+    public PriceByCategoryResponse getCategoryPriceInfo(String categoryName) {
+        final Category category = Category.fromName(categoryName);
+        return queryResultCache.get(CATEGORY_PRICE, category, productRepository.getCategoryVersion(category),
+                () -> findCategoryPriceInfo(category));
+    }
+
+    // limit이 제한되어 있으므로 캐시 키는 카테고리, 순서, limit 조합 수만큼만 생긴다.
+    public RankedBrandsResponse getRankedBrands(String categoryName, String orderName, int limit) {
+        final Category category = Category.fromName(categoryName);
+        final PriceOrder order = PriceOrder.fromName(orderName);
+        if (limit < 1 || limit > MAX_RANK_LIMIT) {
+            throw new ProductException(ErrorCode.INVALID_LIMIT);
+        }
+        return queryResultCache.get(RANKED_BRANDS, new RankKey(category, order, limit),
+                productRepository.getCategoryVersion(category), () -> findRankedBrands(category, order, limit));
+    }
+
+    // 구간 조회는 min, max 조합이 무한하므로 결과를 캐시하지 않는다.
+    public PriceRangeResponse getPriceRange(String categoryName, long minPrice, long maxPrice, int page, int size) {
+        final Category category = Category.fromName(categoryName);
+        validatePriceRange(minPrice, maxPrice);
+        if (page < 0) {
+            throw new ProductException(ErrorCode.INVALID_PAGE);
+        }
+        if (size < 1 || size > MAX_RANK_LIMIT) {
+            throw new ProductException(ErrorCode.INVALID_LIMIT);
+        }
+        final long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new ProductException(ErrorCode.INVALID_PAGE);
+        }
+
+        final PriceRangePage rangePage = productRepository.getProductsInPriceRange(category, minPrice, maxPrice, (int) offset, size);
+        final List<BrandPriceResponse> brands = rangePage.getProducts().stream()
+                .map(p -> new BrandPriceResponse(p.getBrandName(), p.getPrice()))
+                .toList();
+
+        return new PriceRangeResponse(category.name(), minPrice, maxPrice, page, size, rangePage.getTotalCount(), brands);
+    }
+
+    public PriceRangeCountResponse countPriceRange(String categoryName, long minPrice, long maxPrice) {
+        final Category category = Category.fromName(categoryName);
+        validatePriceRange(minPrice, maxPrice);
+        return new PriceRangeCountResponse(category.name(), minPrice, maxPrice,
+                productRepository.countProductsInPriceRange(category, minPrice, maxPrice));
+    }
+
+    // 조회 응답의 ETag에 사용하는 버전. 조회보다 먼저 읽으므로 응답은 항상 이 버전 이후의 데이터를 담는다.
+    public long getCatalogVersion() {
+        return productRepository.getVersion();
+    }
+
+    public long getCategoryVersion(String categoryName) {
+        return productRepository.getCategoryVersion(Category.fromName(categoryName));
+    }
+
+    private LowestCategoryResponse findLowestPricedProductsByCategory() {
         final List<ProductResponse> items = new ArrayList<>();
         Long totalPrice = 0L;
 
-        final List<Brand> allBrands = productRepository.getAllBrands();
-
-        for (Category category : Category.values()) {
-            Product lowestProduct = null;
-            for (Brand brand : allBrands) {
-                final Product product = brand.getProducts().stream()
-                        .filter(p -> p.getCategory() == category)
-                        .findFirst()
-                        .orElse(null);
-
-                if (product != null) {
-                    if (lowestProduct == null || product.getPrice() < lowestProduct.getPrice()) {
-                        lowestProduct = product;
-                    }
-                }
-            }
-
-            if (lowestProduct != null) {
-                items.add(new ProductResponse(
-                        category.name(),
-                        lowestProduct.getBrandName(),
-                        lowestProduct.getPrice()
-                ));
-                totalPrice += lowestProduct.getPrice();
-            }
+        for (Product lowestProduct : productRepository.getLowestPricedProducts()) {
+            items.add(ProductResponse.from(lowestProduct));
+            totalPrice += lowestProduct.getPrice();
         }
 
         if (items.isEmpty()) {
@@ -60,47 +151,19 @@ public class ProductService {
         return new LowestCategoryResponse(items, totalPrice);
     }
 
-    public LowestBrandResponse getBrandWithLowestTotalPrice() {
-        final List<Brand> allBrands = productRepository.getAllBrands();
-        final Category[] categories = Category.values();
-
-        Brand lowestBrand = null;
-        Long lowestTotalPrice = null;
-        List<CategoryPriceResponse> lowestBrandCategories = null;
-
-        for (Brand brand : allBrands) {
-            final List<Product> products = brand.getProducts();
-
-            boolean hasAllCategories = Arrays.stream(categories)
-                    .allMatch(category -> products.stream().anyMatch(p -> p.getCategory() == category));
-
-            if (!hasAllCategories) {
-                continue;
-            }
-            Long totalPrice = 0L;
-            final List<CategoryPriceResponse> categoryPrices = new ArrayList<>();
-
-            for (Category category : categories) {
-                final Product product = products.stream()
-                        .filter(p -> p.getCategory() == category)
-                        .findFirst()
-                        .orElse(null);
-
-                if (product != null) {
-                    totalPrice += product.getPrice();
-                    categoryPrices.add(new CategoryPriceResponse(category.name(), product.getPrice()));
-                }
-            }
-
-            if (lowestTotalPrice == null || totalPrice < lowestTotalPrice) {
-                lowestTotalPrice = totalPrice;
-                lowestBrand = brand;
-                lowestBrandCategories = categoryPrices;
-            }
-        }
+    private LowestBrandResponse findBrandWithLowestTotalPrice() {
+        final Brand lowestBrand = productRepository.getBrandWithLowestTotalPrice()
+                .orElseThrow(() -> new ProductException(ErrorCode.NO_BRAND_HAS_ALL_CATEGORIES));
+        return toLowestBrandResponse(lowestBrand);
+    }
 
-        if (lowestBrand == null) {
-            throw new ProductException(ErrorCode.NO_BRAND_HAS_ALL_CATEGORIES);
+    private static LowestBrandResponse toLowestBrandResponse(Brand lowestBrand) {
+        // 저장소는 브랜드의 상품을 카테고리 순서대로, 카테고리당 하나씩 반환한다.
+        Long lowestTotalPrice = 0L;
+        final List<CategoryPriceResponse> lowestBrandCategories = new ArrayList<>();
+        for (Product product : lowestBrand.getProducts()) {
+            lowestTotalPrice += product.getPrice();
+            lowestBrandCategories.add(new CategoryPriceResponse(product.getCategory().name(), product.getPrice()));
         }
 
         return new LowestBrandResponse(
@@ -110,40 +173,19 @@ public class ProductService {
         );
     }
 
-    public PriceByCategoryResponse getCategoryPriceInfo(String categoryName) {
-
-        final Category category = Category.fromName(categoryName);
-
-        final List<Brand> allBrands = productRepository.getAllBrands();
-        final List<Product> productsInCategory = new ArrayList<>();
+    private PriceByCategoryResponse findCategoryPriceInfo(Category category) {
 
-        for (Brand brand : allBrands) {
-            brand.getProducts().stream()
-                    .filter(p -> p.getCategory() == category)
-                    .forEach(productsInCategory::add);
-        }
+        final CategoryPriceRange priceRange = productRepository.getCategoryPriceRange(category);
 
-        if (productsInCategory.isEmpty()) {
+        if (priceRange.isEmpty()) {
             throw new ProductException(ErrorCode.NO_PRODUCTS_IN_CATEGORY);
         }
 
-        final Long minPrice = productsInCategory.stream()
-                .mapToLong(Product::getPrice)
-                .min()
-                .orElseThrow(() -> new ProductException(ErrorCode.NO_PRODUCTS_IN_CATEGORY));
-
-        final Long maxPrice = productsInCategory.stream()
-                .mapToLong(Product::getPrice)
-                .max()
-                .orElseThrow(() -> new ProductException(ErrorCode.NO_PRODUCTS_IN_CATEGORY));
-
-        final List<BrandPriceResponse> lowestPriceBrands = productsInCategory.stream()
-                .filter(p -> p.getPrice().equals(minPrice))
+        final List<BrandPriceResponse> lowestPriceBrands = priceRange.getLowestProducts().stream()
                 .map(p -> new BrandPriceResponse(p.getBrandName(), p.getPrice()))
                 .toList();
 
-        final List<BrandPriceResponse> highestPriceBrands = productsInCategory.stream()
-                .filter(p -> p.getPrice().equals(maxPrice))
+        final List<BrandPriceResponse> highestPriceBrands = priceRange.getHighestProducts().stream()
                 .map(p -> new BrandPriceResponse(p.getBrandName(), p.getPrice()))
                 .toList();
 
@@ -154,6 +196,24 @@ public class ProductService {
         );
     }
 
+    private RankedBrandsResponse findRankedBrands(Category category, PriceOrder order, int limit) {
+        final List<BrandPriceResponse> brands = productRepository.getRankedProducts(category, order, limit).stream()
+                .map(p -> new BrandPriceResponse(p.getBrandName(), p.getPrice()))
+                .toList();
+
+        if (brands.isEmpty()) {
+            throw new ProductException(ErrorCode.NO_PRODUCTS_IN_CATEGORY);
+        }
+
+        return new RankedBrandsResponse(category.name(), order.name(), brands);
+    }
+
+    private static void validatePriceRange(long minPrice, long maxPrice) {
+        if (minPrice < 0 || minPrice > maxPrice) {
+            throw new ProductException(ErrorCode.INVALID_PRICE_RANGE);
+        }
+    }
+
     public ProductResponse createProduct(ProductRequest productRequest) {
         return ProductResponse.from(productRepository.addProduct(productRequest.toDomain()));
     }
@@ -162,6 +222,10 @@ public class ProductService {
         return BrandResponse.from(productRepository.addBrand(brandRequest.toDomain()));
     }
 
+    public BatchResponse applyBatch(BatchRequest batchRequest) {
+        return new BatchResponse(productRepository.applyBatch(batchRequest.toDomain()));
+    }
+
     public void deleteBrand(String brandName) {
         productRepository.deleteBrand(brandName);
     }
@@ -173,4 +237,7 @@ public class ProductService {
     public ProductResponse updateProduct(String brandName, ProductRequest productRequest) {
         return ProductResponse.from(productRepository.updateProduct(brandName, productRequest.toDomain()));
     }
+
+    private record RankKey(Category category, PriceOrder order, int limit) {
+    }
 }
@@ -0,0 +1,73 @@
+package me.saechimdaeki.sinsa.product.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// 조회 결과를 저장소 버전과 함께 보관하여, 버전이 바뀌지 않았으면 다시 계산하지 않는다.
+// 버전은 조회 전에 읽어야 하며, 저장된 결과가 요청한 버전 이상이면 그대로 사용한다.
+// 조회별 적중/실패 횟수는 sinsa.query.cache{query, result} 카운터로 기록한다.
+@Component
+public class QueryResultCache {
+
+    public static final String CACHE = "sinsa.query.cache";
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+
+    private final Map<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Map<String, QueryCounters> counters = new ConcurrentHashMap<>();
+
+    public QueryResultCache(MeterRegistry meterRegistry,
+                            @Value("${sinsa.query-cache.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    public <V> V get(String query, long version, Supplier<V> loader) {
+        return get(query, query, version, loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V get(String query, Object key, long version, Supplier<V> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        final CacheKey cacheKey = new CacheKey(query, key);
+        final QueryCounters queryCounters = counters(query);
+        final Entry cached = entries.get(cacheKey);
+        if (cached != null && cached.version() >= version) {
+            queryCounters.hits().increment();
+            return (V) cached.value();
+        }
+        queryCounters.misses().increment();
+        final V value = loader.get();
+        // 동시에 계산한 결과 중 더 최신 버전만 남긴다.
+        entries.merge(cacheKey, new Entry(version, value),
+                (saved, loaded) -> saved.version() >= loaded.version() ? saved : loaded);
+        return value;
+    }
+
+    private QueryCounters counters(String query) {
+        return counters.computeIfAbsent(query, key -> new QueryCounters(
+                Counter.builder(CACHE).tags("query", query, "result", "hit").register(meterRegistry),
+                Counter.builder(CACHE).tags("query", query, "result", "miss").register(meterRegistry)
+        ));
+    }
+
+    private record CacheKey(String query, Object key) {
+    }
+
+    private record Entry(long version, Object value) {
+    }
+
+    private record QueryCounters(Counter hits, Counter misses) {
+    }
+}
@@ -0,0 +1,234 @@
+package me.saechimdaeki.sinsa.product.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.CatalogEpoch;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.dto.LowestPriceChangeResponse;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 쓰기가 카테고리 최저가나 최저 총액 브랜드를 바꾸면 구독자에게 변경분을 보낸다.
+// 쓰기 경로는 catalogChanged()로 플래그만 세우고, 발행 스레드 하나가 최신 상태를 읽어 직전 상태와 비교한다.
+// 발행 스레드가 밀린 동안의 쓰기는 한 번의 비교로 합쳐지며, 구독자 전송은 구독자별 버퍼로 처리한다.
+// 소켓 쓰기는 막힐 수 있으므로 전송은 구독자마다 별도의 가상 스레드에서 실행한다. 멈춘 연결은 자신의 전송만 막는다.
+@Component
+@Slf4j
+public class LowestPriceStream {
+
+    public static final String STREAM = "sinsa.price.stream";
+
+    private final ProductRepository productRepository;
+
+    private final long timeoutMillis;
+
+    private final ExecutorService publisher;
+
+    private final ExecutorService sender;
+
+    private final Counter published;
+
+    private final Counter coalesced;
+
+    // 전송 가상 스레드가 연결을 닫으며 제거하므로 모니터 락 없이 동시에 고칠 수 있는 Set을 사용한다.
+    private final Set<LowestPriceSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    // 아래 필드는 발행 스레드에서만 사용한다.
+    private final Map<String, LowestPriceChangeResponse> lastState = new LinkedHashMap<>();
+    private long lastVersion;
+    private boolean hasState;
+
+    public LowestPriceStream(ProductRepository productRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${sinsa.price-stream.timeout-ms:1800000}") long timeoutMillis) {
+        this.productRepository = productRepository;
+        this.timeoutMillis = timeoutMillis;
+        this.publisher = Executors.newSingleThreadExecutor(daemon("lowest-price-publisher"));
+        this.sender = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lowest-price-sender-", 0).factory());
+        this.published = Counter.builder(STREAM).tag("event", "published").register(meterRegistry);
+        this.coalesced = Counter.builder(STREAM).tag("event", "coalesced").register(meterRegistry);
+        Gauge.builder(STREAM + ".subscribers", this, LowestPriceStream::subscriberCount).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        final SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribe(emitter);
+        return emitter;
+    }
+
+    // 구독자는 현재 최저가 전체를 먼저 받고, 이후에는 바뀐 항목만 받는다.
+    void subscribe(SseEmitter emitter) {
+        final LowestPriceSubscription subscription = new LowestPriceSubscription(new LowestPriceSubscription.EventSink() {
+            @Override
+            public void send(long version, String eventName, LowestPriceChangeResponse change) throws IOException {
+                emitter.send(SseEmitter.event().id(CatalogEpoch.token(version)).name(eventName).data(change));
+            }
+
+            @Override
+            public void fail(Throwable e) {
+                emitter.completeWithError(e);
+            }
+        }, sender, coalesced, this::unsubscribe);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        register(subscription);
+    }
+
+    // WebFlux 라우터용 구독. 다운스트림이 요청한 수만큼만 sink.next를 호출하고, 나머지는 구독자별 버퍼에 남겨 합친다.
+    // 요청을 넘어 보내지 않으므로 FluxSink에는 버퍼가 필요 없으며, 넘치면 오류로 드러나도록 ERROR 전략을 사용한다.
+    public Flux<ServerSentEvent<LowestPriceChangeResponse>> events() {
+        return Flux.<ServerSentEvent<LowestPriceChangeResponse>>create(sink -> {
+            final LowestPriceSubscription subscription = new LowestPriceSubscription(new LowestPriceSubscription.EventSink() {
+                @Override
+                public long demand() {
+                    return sink.requestedFromDownstream();
+                }
+
+                @Override
+                public void send(long version, String eventName, LowestPriceChangeResponse change) {
+                    sink.next(ServerSentEvent.builder(change).id(CatalogEpoch.token(version)).event(eventName).build());
+                }
+
+                @Override
+                public void fail(Throwable e) {
+                    sink.error(e);
+                }
+            }, sender, coalesced, this::unsubscribe);
+            sink.onRequest(n -> subscription.requested());
+            sink.onDispose(subscription::close);
+            register(subscription);
+        }, FluxSink.OverflowStrategy.ERROR).take(Duration.ofMillis(timeoutMillis));
+    }
+
+    // 저장소 쓰기가 끝날 때마다 호출된다. 이미 발행이 예약되어 있으면 아무것도 하지 않는다.
+    public void catalogChanged() {
+        if (changed.compareAndSet(false, true)) {
+            publisher.execute(this::publishChanges);
+        }
+    }
+
+    private void register(LowestPriceSubscription subscription) {
+        publisher.execute(() -> {
+            // 기존 구독자에게 밀린 변경을 먼저 보내 lastState를 최신으로 맞춘다.
+            publishChanges();
+            try {
+                if (!hasState) {
+                    readChanges();
+                }
+            } catch (RuntimeException e) {
+                subscription.fail(e);
+                return;
+            }
+            subscriptions.add(subscription);
+            subscription.offer(new ArrayList<>(lastState.values()), lastVersion);
+        });
+    }
+
+    int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        publisher.shutdownNow();
+        sender.shutdownNow();
+        new ArrayList<>(subscriptions).forEach(LowestPriceSubscription::close);
+    }
+
+    private void publishChanges() {
+        changed.set(false);
+        final List<LowestPriceSubscription> targets = new ArrayList<>(subscriptions);
+        if (targets.isEmpty()) {
+            // 구독자가 없으면 비교하지 않고, 다음 구독자가 생길 때 상태를 새로 읽는다.
+            hasState = false;
+            return;
+        }
+        try {
+            final List<LowestPriceChangeResponse> changes = readChanges();
+            if (changes.isEmpty()) {
+                return;
+            }
+            published.increment(changes.size());
+            for (LowestPriceSubscription target : targets) {
+                target.offer(changes, lastVersion);
+            }
+        } catch (RuntimeException e) {
+            // 읽기 락을 얻지 못한 경우 등은 다음 쓰기에서 다시 비교한다.
+            log.warn("Failed to publish lowest price changes", e);
+        }
+    }
+
+    // 현재 최저가 상태를 읽어 직전 상태와 다른 항목만 반환하고, 직전 상태를 갱신한다.
+    // 버전을 먼저 읽으므로 이벤트 id는 이벤트에 담긴 상태보다 새로운 버전을 가리키지 않는다.
+    private List<LowestPriceChangeResponse> readChanges() {
+        final long version = productRepository.getVersion();
+        final Map<String, LowestPriceChangeResponse> state = new LinkedHashMap<>();
+        for (Category category : Category.values()) {
+            state.put(category.name(), new LowestPriceChangeResponse(category.name(), null, null));
+        }
+        for (Product product : productRepository.getLowestPricedProducts()) {
+            final String category = product.getCategory().name();
+            state.put(category, new LowestPriceChangeResponse(category, product.getBrandName(), product.getPrice()));
+        }
+        final LowestPriceChangeResponse lowestBrand = productRepository.getBrandWithLowestTotalPrice()
+                .map(LowestPriceStream::toChange)
+                .orElse(new LowestPriceChangeResponse(null, null, null));
+        state.put(LowestPriceSubscription.BRAND_EVENT, lowestBrand);
+
+        final List<LowestPriceChangeResponse> changes = new ArrayList<>();
+        state.forEach((key, value) -> {
+            if (!hasState || !value.equals(lastState.get(key))) {
+                changes.add(value);
+            }
+        });
+        lastState.clear();
+        lastState.putAll(state);
+        lastVersion = version;
+        hasState = true;
+        return changes;
+    }
+
+    private void unsubscribe(LowestPriceSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    private static LowestPriceChangeResponse toChange(Brand brand) {
+        long totalPrice = 0L;
+        for (Product product : brand.getProducts()) {
+            totalPrice += product.getPrice();
+        }
+        return new LowestPriceChangeResponse(null, brand.getBrandName(), totalPrice);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        final AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package me.saechimdaeki.sinsa.product.stream;
+
+import me.saechimdaeki.sinsa.common.annotation.WriteLock;
+import me.saechimdaeki.sinsa.common.config.LockAspect;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// 저장소 쓰기가 성공하고 락을 놓은 뒤 최저가 스트림에 알린다.
+// LowestPriceStream이 저장소를 주입받으므로 순환 참조를 피하려고 지연 주입한다.
+@Aspect
+@Component
+@Order(LockAspect.ORDER - 1)
+public class LowestPriceStreamAspect {
+
+    private final LowestPriceStream lowestPriceStream;
+
+    public LowestPriceStreamAspect(@Lazy LowestPriceStream lowestPriceStream) {
+        this.lowestPriceStream = lowestPriceStream;
+    }
+
+    @AfterReturning("@annotation(writeLock) && within(me.saechimdaeki.sinsa.product.repository.ProductRepository+)")
+    public void afterWrite(WriteLock writeLock) {
+        lowestPriceStream.catalogChanged();
+    }
+}
@@ -0,0 +1,159 @@
+package me.saechimdaeki.sinsa.product.stream;
+
+import io.micrometer.core.instrument.Counter;
+import lombok.extern.slf4j.Slf4j;
+import me.saechimdaeki.sinsa.product.dto.LowestPriceChangeResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// 구독자 하나의 전송 버퍼. 이벤트는 카테고리(또는 최저 총액 브랜드)별로 최신 값 하나만 남기므로
+// 버퍼 크기는 카테고리 수 + 1을 넘지 않는다. 전송이 밀린 동안 들어온 변경은 덮어써져 합쳐진다.
+// 연결이 요청한 수(EventSink.demand)만큼만 꺼내 보내므로, 요청이 없는 동안의 변경도 연결이 아니라 이 버퍼에서 합쳐진다.
+@Slf4j
+class LowestPriceSubscription {
+
+    static final String CATEGORY_EVENT = "category";
+    static final String BRAND_EVENT = "brand";
+
+    private final EventSink sink;
+
+    private final Executor sender;
+
+    private final Counter coalesced;
+
+    private final Consumer<LowestPriceSubscription> onClose;
+
+    // 아래 필드는 lock으로 보호한다. 전송 가상 스레드가 기다리므로 synchronized 대신 ReentrantLock을 사용한다.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, LowestPriceChangeResponse> pending = new LinkedHashMap<>();
+    private long version;
+    private boolean draining;
+    private boolean closed;
+
+    LowestPriceSubscription(EventSink sink, Executor sender, Counter coalesced, Consumer<LowestPriceSubscription> onClose) {
+        this.sink = sink;
+        this.sender = sender;
+        this.coalesced = coalesced;
+        this.onClose = onClose;
+    }
+
+    // 발행 스레드에서 호출되며, 버퍼에 넣고 전송을 예약만 하므로 구독자가 느려도 막히지 않는다.
+    void offer(List<LowestPriceChangeResponse> changes, long version) {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            for (LowestPriceChangeResponse change : changes) {
+                final String key = change.getCategory() == null ? BRAND_EVENT : change.getCategory();
+                if (pending.remove(key) != null) {
+                    coalesced.increment();
+                }
+                pending.put(key, change);
+            }
+            this.version = version;
+            if (draining || pending.isEmpty()) {
+                return;
+            }
+            draining = true;
+        } finally {
+            lock.unlock();
+        }
+        sender.execute(this::drain);
+    }
+
+    // 연결이 이벤트를 더 요청했을 때 호출되며, 요청이 없어 멈춘 전송을 다시 예약한다.
+    void requested() {
+        lock.lock();
+        try {
+            if (closed || draining || pending.isEmpty()) {
+                return;
+            }
+            draining = true;
+        } finally {
+            lock.unlock();
+        }
+        sender.execute(this::drain);
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+        } finally {
+            lock.unlock();
+        }
+        onClose.accept(this);
+    }
+
+    // 구독을 닫고 연결을 오류로 끝낸다.
+    void fail(Throwable e) {
+        close();
+        sink.fail(e);
+    }
+
+    private void drain() {
+        while (true) {
+            final List<LowestPriceChangeResponse> changes;
+            final long eventVersion;
+            lock.lock();
+            try {
+                // 요청이 없으면 남은 변경은 버퍼에 두고 멈춘다. 요청이 오면 requested()가 다시 예약한다.
+                final long demand = sink.demand();
+                if (closed || pending.isEmpty() || demand <= 0) {
+                    draining = false;
+                    return;
+                }
+                changes = new ArrayList<>();
+                final Iterator<LowestPriceChangeResponse> iterator = pending.values().iterator();
+                while (iterator.hasNext() && changes.size() < demand) {
+                    changes.add(iterator.next());
+                    iterator.remove();
+                }
+                eventVersion = version;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                for (LowestPriceChangeResponse change : changes) {
+                    sink.send(eventVersion, change.getCategory() == null ? BRAND_EVENT : CATEGORY_EVENT, change);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Lowest price subscriber disconnected: {}", e.getMessage());
+                lock.lock();
+                try {
+                    draining = false;
+                } finally {
+                    lock.unlock();
+                }
+                fail(e);
+                return;
+            }
+        }
+    }
+
+    // SSE 연결(SseEmitter, WebFlux Flux)에 이벤트를 쓰는 방법
+    interface EventSink {
+
+        // 지금 보낼 수 있는 이벤트 수. 요청 수를 알 수 없는 연결(SseEmitter)은 제한하지 않는다.
+        default long demand() {
+            return Long.MAX_VALUE;
+        }
+
+        void send(long version, String eventName, LowestPriceChangeResponse change) throws IOException;
+
+        void fail(Throwable e);
+    }
+}
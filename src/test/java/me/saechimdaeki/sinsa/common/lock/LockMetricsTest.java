@@ -0,0 +1,81 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class LockMetricsTest {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LockMetricsEndpoint lockMetricsEndpoint;
+
+    @AfterEach
+    void clearData() {
+        repository.clearAllData();
+    }
+
+    @Test
+    @DisplayName("락을 거는 저장소 메서드를 호출하면 메서드와 락 모드별로 대기, 점유 시간이 기록되어야 한다")
+    void recordLockMetricsTest() {
+        // given
+        final String method = "InMemoryProductRepositoryImpl.addProduct";
+        final Timer before = meterRegistry.find(LockMetrics.HOLD).tags("method", method, "mode", "write").timer();
+        final long beforeCount = before == null ? 0 : before.count();
+
+        // when
+        repository.addProduct(new Product("testBrand", Category.BAG, 1000L));
+
+        // then
+        final Timer acquire = meterRegistry.get(LockMetrics.ACQUIRE).tags("method", method, "mode", "write").timer();
+        final Timer hold = meterRegistry.get(LockMetrics.HOLD).tags("method", method, "mode", "write").timer();
+        assertThat(acquire.count()).isPositive();
+        assertThat(hold.count()).isEqualTo(beforeCount + 1);
+        assertThat(lockMetricsEndpoint.locks())
+                .anySatisfy(stats -> {
+                    assertThat(stats.getMethod()).isEqualTo(method);
+                    assertThat(stats.getMode()).isEqualTo("write");
+                    assertThat(stats.getFailures()).isZero();
+                });
+    }
+
+    @Test
+    @DisplayName("낙관적 읽기 무효화는 실패 횟수가 아닌 별도의 무효화 횟수로 기록되어야 한다")
+    void recordInvalidationSeparatelyTest() throws NoSuchMethodException {
+        // given
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final LockMetrics lockMetrics = new LockMetrics(registry);
+        final LockMeters meters = lockMetrics.meters(
+                ProductRepository.class.getMethod("getBrand", String.class), LockMode.OPTIMISTIC_READ);
+
+        // when
+        meters.recordInvalidation();
+
+        // then
+        assertThat(registry.get(LockMetrics.INVALIDATIONS).tags("mode", "optimistic_read").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.find(LockMetrics.FAILURES).counters()).isEmpty();
+        assertThat(lockMetrics.stats())
+                .singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.getInvalidations()).isEqualTo(1L);
+                    assertThat(stats.getFailures()).isZero();
+                });
+    }
+}
@@ -0,0 +1,105 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReentrantLockStrategyTest {
+
+    private final ReentrantLockStrategy lockStrategy = new ReentrantLockStrategy(16);
+
+    @Test
+    @DisplayName("서로 다른 키의 쓰기 락은 동시에 획득할 수 있어야 한다")
+    void keyedWriteLocksDoNotBlockEachOtherTest() throws Exception {
+        // given
+        final long stamp = lockStrategy.tryWriteLock("A", 10, TimeUnit.MILLISECONDS);
+        assertThat(stamp).isNotZero();
+
+        // when
+        final long other = tryInOtherThread(() -> {
+            final long otherStamp = lockStrategy.tryWriteLock("B", 10, TimeUnit.MILLISECONDS);
+            lockStrategy.unlockWrite("B", otherStamp);
+            return otherStamp;
+        });
+
+        // then
+        assertThat(other).isNotZero();
+        lockStrategy.unlockWrite("A", stamp);
+    }
+
+    @Test
+    @DisplayName("키가 있는 쓰기 락이 잡혀 있으면 같은 키의 쓰기와 카탈로그 전체 읽기는 락을 획득하지 못해야 한다")
+    void keyedWriteLockBlocksSameKeyAndCatalogReadTest() throws Exception {
+        // given
+        final long stamp = lockStrategy.tryWriteLock("A", 10, TimeUnit.MILLISECONDS);
+
+        // when
+        final long sameKey = tryInOtherThread(() -> lockStrategy.tryWriteLock("A", 10, TimeUnit.MILLISECONDS));
+        final long catalogRead = tryInOtherThread(() -> lockStrategy.tryReadLock(null, 10, TimeUnit.MILLISECONDS));
+
+        // then
+        assertThat(sameKey).isZero();
+        assertThat(catalogRead).isZero();
+        lockStrategy.unlockWrite("A", stamp);
+
+        final long readStamp = lockStrategy.tryReadLock(null, 10, TimeUnit.MILLISECONDS);
+        assertThat(readStamp).isNotZero();
+        lockStrategy.unlockRead(null, readStamp);
+    }
+
+    @Test
+    @DisplayName("카탈로그 전체 쓰기 락이 잡혀 있으면 키가 있는 읽기도 락을 획득하지 못해야 한다")
+    void catalogWriteLockBlocksKeyedReadTest() throws Exception {
+        // given
+        final long stamp = lockStrategy.tryWriteLock(null, 10, TimeUnit.MILLISECONDS);
+
+        // when
+        final long keyedRead = tryInOtherThread(() -> lockStrategy.tryReadLock("A", 10, TimeUnit.MILLISECONDS));
+
+        // then
+        assertThat(keyedRead).isZero();
+        lockStrategy.unlockWrite(null, stamp);
+    }
+
+    @Test
+    @DisplayName("전역 읽기 락은 키가 있는 쓰기와는 동시에 획득하고, 카탈로그 전체 쓰기가 잡혀 있으면 획득하지 못해야 한다")
+    void globalReadLockBlocksOnlyCatalogWriteTest() throws Exception {
+        // given
+        final long keyedStamp = lockStrategy.tryWriteLock("A", 10, TimeUnit.MILLISECONDS);
+
+        // when
+        final long duringKeyedWrite = tryInOtherThread(() -> {
+            final long otherStamp = lockStrategy.tryGlobalReadLock(10, TimeUnit.MILLISECONDS);
+            lockStrategy.unlockGlobalRead(otherStamp);
+            return otherStamp;
+        });
+        lockStrategy.unlockWrite("A", keyedStamp);
+
+        final long catalogStamp = lockStrategy.tryWriteLock(null, 10, TimeUnit.MILLISECONDS);
+        final long duringCatalogWrite = tryInOtherThread(() -> lockStrategy.tryGlobalReadLock(10, TimeUnit.MILLISECONDS));
+        lockStrategy.unlockWrite(null, catalogStamp);
+
+        // then
+        assertThat(duringKeyedWrite).isNotZero();
+        assertThat(duringCatalogWrite).isZero();
+    }
+
+    private long tryInOtherThread(LockAttempt attempt) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return attempt.tryLock();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }).get();
+    }
+
+    @FunctionalInterface
+    private interface LockAttempt {
+        long tryLock() throws InterruptedException;
+    }
+}
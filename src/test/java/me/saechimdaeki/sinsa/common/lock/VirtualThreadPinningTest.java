@@ -0,0 +1,81 @@
+package me.saechimdaeki.sinsa.common.lock;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+// JDK 21의 jdk.VirtualThreadPinned 이벤트는 고정된 가상 스레드가 park할 때(synchronized 안에서 락, I/O 등을 기다릴 때)만 기록된다.
+// synchronized 블록에 들어가려고 모니터를 기다리는 경합은 캐리어 스레드를 붙잡아도 이벤트가 남지 않으므로 이 테스트로 잡을 수 없다.
+// 그래서 락 안에서 실행되는 코드는 synchronized를 쓰지 않고 ReentrantLock 등 java.util.concurrent 락으로 보호한다.
+@SpringBootTest
+class VirtualThreadPinningTest {
+
+    private static final int REQUESTS = 2_000;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @AfterEach
+    void clearData() {
+        repository.clearAllData();
+    }
+
+    @Test
+    @DisplayName("가상 스레드가 LockAspect의 락을 기다리는 동안 캐리어 스레드에 고정(pinning)되지 않아야 한다")
+    void lockAspectDoesNotPinTest() throws Exception {
+        // given
+        final List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+        final AtomicInteger completed = new AtomicInteger();
+
+        // when
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+            recording.startAsync();
+
+            // 같은 브랜드 쓰기, 전체 쓰기, 전체 읽기를 섞어 락 경합으로 가상 스레드가 대기하게 한다.
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    final int request = i;
+                    executor.execute(() -> {
+                        try {
+                            switch (request % 4) {
+                                case 0 -> repository.addProduct(new Product("brand", Category.TOP, 1000L + request));
+                                case 1 -> repository.addProducts(List.of(new Product("brand-" + request, Category.HAT, 1000L)));
+                                case 2 -> repository.getLowestPricedProducts();
+                                default -> repository.getLowestPriceChanges(0L);
+                            }
+                            completed.incrementAndGet();
+                        } catch (ProductException e) {
+                            // 락 획득 재시도를 모두 소진한 요청도 대기는 했으므로 그대로 둔다.
+                        }
+                    });
+                }
+            }
+            recording.stop();
+        }
+
+        // then
+        assertThat(completed.get()).isPositive();
+        assertThat(pinnedEvents)
+                .as("pinned stacks: %s", pinnedEvents.stream().map(RecordedEvent::getStackTrace).toList())
+                .isEmpty();
+    }
+}
@@ -3,6 +3,7 @@ package me.saechimdaeki.sinsa.product.controller;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.CatalogEpoch;
 import me.saechimdaeki.sinsa.product.domain.Category;
 import me.saechimdaeki.sinsa.product.domain.Product;
 import me.saechimdaeki.sinsa.product.dto.*;
@@ -14,6 +15,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -24,6 +26,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -77,6 +80,276 @@ class ProductControllerTest {
         assertThat(lowestBrandResponse.getBrand()).isNotNull();
     }
 
+    @Test
+    @DisplayName("카테고리 순위 조회 API는 요청한 순서대로 limit개의 브랜드를 반환하고, 잘못된 요청에는 400을 반환해야 한다")
+    void getRankedBrandsTest() throws Exception {
+        // given when
+        final String contentAsString = mockMvc.perform(get("/store/category/sneakers/top")
+                        .param("order", "highest")
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final RankedBrandsResponse response = objectMapper.readValue(contentAsString, RankedBrandsResponse.class);
+
+        // then
+        assertThat(response.getCategory()).isEqualTo(Category.SNEAKERS.name());
+        assertThat(response.getBrands()).hasSize(3);
+        assertThat(response.getBrands()).extracting(BrandPriceResponse::getPrice)
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+
+        mockMvc.perform(get("/store/category/sneakers/top").param("order", "middle"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/store/category/sneakers/top").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("가격 구간 조회 API는 구간 안의 브랜드를 페이지 단위로, 개수 API는 구간의 상품 수를 반환해야 한다")
+    void getPriceRangeTest() throws Exception {
+        // given when
+        final String contentAsString = mockMvc.perform(get("/store/category/hat/range")
+                        .param("min", "1500")
+                        .param("max", "1700")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final PriceRangeResponse response = objectMapper.readValue(contentAsString, PriceRangeResponse.class);
+
+        final String countAsString = mockMvc.perform(get("/store/category/hat/range/count")
+                        .param("min", "1500")
+                        .param("max", "1700"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final PriceRangeCountResponse countResponse = objectMapper.readValue(countAsString, PriceRangeCountResponse.class);
+
+        // then
+        // 초기 데이터의 HAT 가격: 1500(D), 1600(F, H), 1700(A, G, I)
+        assertThat(response.getTotalCount()).isEqualTo(6);
+        assertThat(response.getBrands()).extracting(BrandPriceResponse::getPrice).containsExactly(1500L, 1600L);
+        assertThat(countResponse.getCount()).isEqualTo(6);
+
+        mockMvc.perform(get("/store/category/hat/range").param("min", "2000").param("max", "1000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/store/category/hat/range").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("sinceVersion 이후로 최저가가 바뀌지 않았다면 204를, 바뀌었다면 바뀐 항목과 새 버전을 반환해야 한다")
+    void lowestChangesSinceVersionTest() throws Exception {
+        // given
+        final LowestCategoryChangesResponse initial = objectMapper.readValue(mockMvc.perform(get("/store/lowest-category")
+                        .param("sinceVersion", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), LowestCategoryChangesResponse.class);
+        assertThat(initial.getItems()).hasSize(Category.values().length);
+        final String version = initial.getVersion();
+
+        // when then
+        mockMvc.perform(get("/store/lowest-category").param("sinceVersion", version))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/store/lowest-brand").param("sinceVersion", version))
+                .andExpect(status().isNoContent());
+
+        productRepository.updateProduct("A", new Product("A", Category.BAG, 100L));
+
+        final LowestCategoryChangesResponse changed = objectMapper.readValue(mockMvc.perform(get("/store/lowest-category")
+                        .param("sinceVersion", version))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), LowestCategoryChangesResponse.class);
+        assertThat(CatalogEpoch.versionOf(changed.getVersion())).isGreaterThan(CatalogEpoch.versionOf(version));
+        assertThat(changed.getItems()).singleElement()
+                .extracting(ProductResponse::getCategory, ProductResponse::getBrandName, ProductResponse::getPrice)
+                .containsExactly("BAG", "A", 100L);
+        assertThat(changed.getTotalPrice()).isEqualTo(initial.getTotalPrice() - 2000L + 100L);
+    }
+
+    @Test
+    @DisplayName("다른 epoch의 sinceVersion은 번호가 같아도 비교하지 않고 전체를 반환해야 한다")
+    void lowestChangesAcrossEpochTest() throws Exception {
+        // given
+        final String current = CatalogEpoch.token(productRepository.getVersion());
+        final String otherEpoch = "restarted:" + productRepository.getVersion();
+
+        // when then
+        mockMvc.perform(get("/store/lowest-category").param("sinceVersion", current))
+                .andExpect(status().isNoContent());
+        final LowestCategoryChangesResponse full = objectMapper.readValue(mockMvc.perform(get("/store/lowest-category")
+                        .param("sinceVersion", otherEpoch))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), LowestCategoryChangesResponse.class);
+        assertThat(full.getItems()).hasSize(Category.values().length);
+        assertThat(full.getVersion()).isEqualTo(current);
+        mockMvc.perform(get("/store/lowest-brand").param("sinceVersion", otherEpoch))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("카탈로그가 바뀌지 않았다면 If-None-Match 요청에 304를, 바뀌었다면 새 ETag와 함께 200을 반환해야 한다")
+    void conditionalGetTest() throws Exception {
+        // given
+        final String eTag = mockMvc.perform(get("/store/lowest-category"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        final String categoryETag = mockMvc.perform(get("/store/category").param("category", "socks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        // when then
+        mockMvc.perform(get("/store/lowest-category").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        productRepository.updateProduct("A", new Product("A", Category.BAG, 100L));
+
+        final String changedETag = mockMvc.perform(get("/store/lowest-category").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changedETag).isNotEqualTo(eTag);
+
+        // 다른 카테고리의 변경은 카테고리 가격 정보의 ETag에 영향을 주지 않는다.
+        mockMvc.perform(get("/store/category").param("category", "socks").header(HttpHeaders.IF_NONE_MATCH, categoryETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("다른 프로세스(재시작 전이나 다른 노드)에서 받은 같은 버전의 ETag로는 304를 반환하지 않아야 한다")
+    void conditionalGetAcrossEpochTest() throws Exception {
+        // given
+        final String eTag = mockMvc.perform(get("/store/lowest-category"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        final String otherEpochETag = "\"lowest-category-otherepoch-" + productRepository.getVersion() + "\"";
+
+        // when then
+        assertThat(eTag).contains(CatalogEpoch.CURRENT).isNotEqualTo(otherEpochETag);
+        mockMvc.perform(get("/store/lowest-category").header(HttpHeaders.IF_NONE_MATCH, otherEpochETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    @DisplayName("NDJSON 상품 피드를 가져오면 올바른 행은 반영하고 잘못된 행은 줄 번호와 함께 거절해야 한다")
+    void importNdjsonTest() throws Exception {
+        // given
+        final String feed = """
+                {"brandName":"importBrand","category":"top","price":1000}
+                {"brandName":"importBrand","category":"bag","price":2000}
+                {"brandName":"importBrand","category":"unknown","price":2000}
+
+                {"brandName":"importBrand","category":"bag","price":-1}
+                not json
+                {"brandName":"A","category":"socks","price":10}
+                """;
+
+        // when
+        final String contentAsString = mockMvc.perform(post("/store/import")
+                        .contentType("application/x-ndjson")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final ImportResponse importResponse = objectMapper.readValue(contentAsString, ImportResponse.class);
+
+        // then
+        assertThat(importResponse.getApplied()).isEqualTo(3);
+        assertThat(importResponse.getRejected()).isEqualTo(3);
+        assertThat(importResponse.getErrors()).extracting(ImportError::getLine).containsExactly(3L, 5L, 6L);
+        assertThat(productRepository.getBrand("importBrand").getProducts()).hasSize(2);
+        assertThat(productRepository.getLowestPricedProducts())
+                .contains(new Product("A", Category.SOCKS, 10L));
+    }
+
+    @Test
+    @DisplayName("NDJSON 피드의 null이나 객체가 아닌 행은 전체 가져오기를 실패시키지 않고 malformed json으로 거절해야 한다")
+    void importNdjsonNonObjectRowTest() throws Exception {
+        // given
+        final String feed = """
+                {"brandName":"nullBrand","category":"top","price":1000}
+                null
+                [1,2,3]
+                42
+                {"brandName":"nullBrand","category":"bag","price":2000}
+                """;
+
+        // when
+        final String contentAsString = mockMvc.perform(post("/store/import")
+                        .contentType("application/x-ndjson")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final ImportResponse importResponse = objectMapper.readValue(contentAsString, ImportResponse.class);
+
+        // then
+        assertThat(importResponse.getApplied()).isEqualTo(2);
+        assertThat(importResponse.getRejected()).isEqualTo(3);
+        assertThat(importResponse.getErrors())
+                .extracting(ImportError::getLine, ImportError::getReason)
+                .containsExactly(tuple(2L, "malformed json"), tuple(3L, "malformed json"), tuple(4L, "malformed json"));
+        assertThat(productRepository.getBrand("nullBrand").getProducts()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("CSV 상품 피드는 헤더를 건너뛰고 같은 브랜드, 카테고리 상품은 마지막 행으로 반영해야 한다")
+    void importCsvTest() throws Exception {
+        // given
+        final String feed = """
+                brandName,category,price
+                csvBrand,hat,1500
+                csvBrand,hat,1200
+                csvBrand,socks
+                csvBrand,socks,abc
+                """;
+
+        // when
+        final String contentAsString = mockMvc.perform(post("/store/import")
+                        .contentType("text/csv")
+                        .content(feed))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final ImportResponse importResponse = objectMapper.readValue(contentAsString, ImportResponse.class);
+
+        // then
+        assertThat(importResponse.getApplied()).isEqualTo(2);
+        assertThat(importResponse.getRejected()).isEqualTo(2);
+        assertThat(productRepository.getBrand("csvBrand").getProducts())
+                .containsExactly(new Product("csvBrand", Category.HAT, 1200L));
+    }
+
+    @Test
+    @DisplayName("배치 API는 연산을 모두 반영하거나, 실패한 경우 아무것도 반영하지 않아야 한다")
+    void applyBatchTest() throws Exception {
+        // given
+        final String batch = """
+                {"operations": [
+                    {"type": "UPDATE", "brandName": "A", "category": "top", "price": 100},
+                    {"type": "ADD", "brandName": "batchBrand", "category": "bag", "price": 700},
+                    {"type": "DELETE", "brandName": "B", "category": "hat"}
+                ]}
+                """;
+        final String failingBatch = """
+                {"operations": [
+                    {"type": "UPDATE", "brandName": "A", "category": "top", "price": 50},
+                    {"type": "UPDATE", "brandName": "noBrand", "category": "top", "price": 50}
+                ]}
+                """;
+
+        // when then
+        mockMvc.perform(post("/store/batch").contentType(MediaType.APPLICATION_JSON).content(batch))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/store/batch").contentType(MediaType.APPLICATION_JSON).content(failingBatch))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/store/batch").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [{\"type\": \"ADD\", \"brandName\": \"A\", \"category\": \"top\"}]}"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(productRepository.getBrand("A").getProducts())
+                .contains(new Product("A", Category.TOP, 100L));
+        assertThat(productRepository.getBrand("batchBrand").getProducts())
+                .containsExactly(new Product("batchBrand", Category.BAG, 700L));
+        assertThat(productRepository.getBrand("B").getProducts())
+                .extracting(Product::getCategory).doesNotContain(Category.HAT);
+    }
+
     @Test
     @DisplayName("초기에 주어지는 데이터로 카테고리 이름으로 최저, 최고 가격 브랜드와 상품 가격을 조회하는 API를 반환해야 한다")
     void getProductsByCategoryTest() throws Exception {
@@ -0,0 +1,147 @@
+package me.saechimdaeki.sinsa.product.controller;
+
+import me.saechimdaeki.sinsa.product.domain.CatalogEpoch;
+import me.saechimdaeki.sinsa.product.dto.LowestCategoryResponse;
+import me.saechimdaeki.sinsa.product.dto.LowestPriceChangeResponse;
+import me.saechimdaeki.sinsa.product.repository.InMemoryProductRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+class ProductRouterTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private InMemoryProductRepositoryImpl productRepository;
+
+    @Test
+    @DisplayName("WebFlux 라우터는 ProductController와 같은 조회 응답과 ETag를 반환하고, If-None-Match가 일치하면 304를 반환해야 한다")
+    void getProductsByLowestCategoryTest() {
+        // given when
+        final LowestCategoryResponse response = webTestClient.get().uri("/store/lowest-category")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("ETag")
+                .expectBody(LowestCategoryResponse.class)
+                .returnResult().getResponseBody();
+        final String eTag = CatalogETag.lowestCategory(productRepository.getVersion());
+
+        // then
+        assertThat(response).isNotNull();
+        assertThat(response.getTotalPrice()).isPositive();
+        webTestClient.get().uri("/store/lowest-category")
+                .header("If-None-Match", eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/store/lowest-category?sinceVersion={version}", CatalogEpoch.token(productRepository.getVersion()))
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    @DisplayName("WebFlux 라우터는 서비스 예외, 본문 검증 실패, 잘못된 요청 파라미터에 ProductController와 같이 400을 반환해야 한다")
+    void errorResponseTest() {
+        webTestClient.get().uri("/store/category/sneakers/top?order=middle")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("P011");
+        webTestClient.get().uri("/store/category?category=unknown")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/store/category/sneakers/top?limit=many")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.post().uri("/store/brand")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"brandName\":\"\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("BindException");
+    }
+
+    @Test
+    @DisplayName("WebFlux 라우터로 브랜드를 등록하고, 상품 피드를 가져오고, 브랜드를 삭제할 수 있어야 한다")
+    void writeTest() {
+        // given
+        final String brandName = "reactive";
+        final String feed = """
+                {"brandName":"reactive","category":"TOP","price":100}
+                {"brandName":"reactive","category":"HAT","price":-1}
+                """;
+
+        // when then
+        webTestClient.post().uri("/store/brand")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"brandName\":\"" + brandName + "\"}")
+                .exchange()
+                .expectStatus().isCreated();
+        webTestClient.post().uri("/store/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(feed)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.applied").isEqualTo(1)
+                .jsonPath("$.rejected").isEqualTo(1);
+        assertThat(productRepository.getBrand(brandName).getProducts()).hasSize(1);
+
+        webTestClient.delete().uri("/store/brand/{brandName}", brandName)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/store/brand/{brandName}", brandName)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.code").isEqualTo("P005");
+    }
+
+    @Test
+    @DisplayName("WebFlux 라우터의 최저가 스트림은 연결 직후 카테고리별 현재 최저가를 SSE 이벤트로 보내야 한다")
+    void streamLowestPricesTest() {
+        // given when
+        final List<ServerSentEvent<LowestPriceChangeResponse>> events = webTestClient.get().uri("/store/lowest-price/stream")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<LowestPriceChangeResponse>>() {
+                })
+                .getResponseBody()
+                .take(3)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // then
+        assertThat(events).hasSize(3);
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.event()).isEqualTo("category");
+            assertThat(event.id()).isEqualTo(CatalogEpoch.token(productRepository.getVersion()));
+            assertThat(event.data().getPrice()).isPositive();
+        });
+    }
+
+    @BeforeEach
+    void initData() {
+        productRepository.initData();
+    }
+
+    @AfterEach
+    void clearData() {
+        productRepository.clearAllData();
+    }
+}
@@ -0,0 +1,223 @@
+package me.saechimdaeki.sinsa.product.journal;
+
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.exception.ErrorCode;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.repository.InMemoryProductRepositoryImpl;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class ProductJournalTest {
+
+    private static final Path JOURNAL_PATH = Path.of(System.getProperty("java.io.tmpdir"),
+            "sinsa-journal-" + UUID.randomUUID(), "catalog.journal");
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("sinsa.journal.enabled", () -> "true");
+        registry.add("sinsa.journal.path", JOURNAL_PATH::toString);
+        registry.add("sinsa.journal.fsync", () -> "group");
+        registry.add("sinsa.journal.group-commit-interval-ms", () -> "2");
+    }
+
+    @Autowired
+    private ProductRepository repository;
+
+    @AfterEach
+    void clearData() {
+        repository.clearAllData();
+    }
+
+    @AfterAll
+    static void deleteJournalDirectory() throws IOException {
+        FileSystemUtils.deleteRecursively(JOURNAL_PATH.getParent());
+    }
+
+    @Test
+    @DisplayName("저장소의 변경은 저널에 기록되고, 저널을 다시 적용하면 같은 상태가 복원되어야 한다")
+    void replayTest() throws IOException {
+        // given
+        repository.addBrand(new Brand("A", List.of(new Product("A", Category.TOP, 1000L), new Product("A", Category.BAG, 2000L))));
+        repository.addProduct(new Product("B", Category.HAT, 3000L));
+        repository.updateProduct("A", new Product("A", Category.TOP, 900L));
+        repository.deleteProduct("A", Category.BAG);
+        repository.addProducts(List.of(new Product("C", Category.SOCKS, 500L), new Product("B", Category.SOCKS, 400L)));
+        repository.applyBatch(List.of(new BatchOperation(BatchOperation.Type.UPDATE, "C", Category.SOCKS, 450L)));
+        repository.addProduct(new Product("D", Category.TOP, 100L));
+        repository.deleteBrand("D");
+
+        // when
+        final InMemoryProductRepositoryImpl restored = new InMemoryProductRepositoryImpl();
+        final ProductJournal journal = new ProductJournal(JOURNAL_PATH, FsyncPolicy.OS, 0);
+        journal.open();
+        journal.replay(entry -> entry.applyTo(restored));
+        journal.close();
+
+        // then
+        assertThat(restored.getAllBrands()).containsExactlyInAnyOrderElementsOf(repository.getAllBrands());
+        assertThat(restored.getBrand("A").getProducts()).containsExactly(new Product("A", Category.TOP, 900L));
+        assertThat(restored.getBrand("D")).isNull();
+    }
+
+    @Test
+    @DisplayName("저장소에서 실패한 변경은 저널에 기록된 뒤 Abort되어, 다시 적용할 때 건너뛰어야 한다")
+    void abortedEntryTest() throws IOException {
+        // given
+        repository.addProduct(new Product("A", Category.TOP, 1000L));
+        assertThatThrownBy(() -> repository.updateProduct("A", new Product("A", Category.BAG, 500L)))
+                .isInstanceOf(ProductException.class);
+        assertThatThrownBy(() -> repository.deleteBrand("missing"))
+                .isInstanceOf(ProductException.class);
+        repository.updateProduct("A", new Product("A", Category.TOP, 900L));
+
+        // when
+        final List<JournalEntry> entries = new ArrayList<>();
+        final ProductJournal journal = new ProductJournal(JOURNAL_PATH, FsyncPolicy.OS, 0);
+        journal.open();
+        final long count = journal.replay(entries::add);
+        journal.close();
+
+        // then
+        assertThat(entries).doesNotContain(
+                new JournalEntry.UpdateProduct(new Product("A", Category.BAG, 500L)),
+                new JournalEntry.DeleteBrand("missing"));
+        assertThat(entries).noneMatch(entry -> entry instanceof JournalEntry.Abort);
+        assertThat(entries).endsWith(
+                new JournalEntry.AddProduct(new Product("A", Category.TOP, 1000L)),
+                new JournalEntry.UpdateProduct(new Product("A", Category.TOP, 900L)));
+        assertThat(count).isEqualTo(entries.size());
+    }
+
+    @Test
+    @DisplayName("마지막 레코드가 잘려 있으면 정상 레코드까지만 적용하고 잘린 부분은 지운 뒤 이어서 기록해야 한다")
+    void tornTailTest() throws IOException {
+        // given
+        final Path path = JOURNAL_PATH.resolveSibling("torn.journal");
+        final ProductJournal journal = new ProductJournal(path, FsyncPolicy.ALWAYS, 0);
+        journal.open();
+        journal.append(new JournalEntry.AddProduct(new Product("A", Category.TOP, 1000L)));
+        journal.append(new JournalEntry.AddProduct(new Product("B", Category.TOP, 2000L)));
+        journal.close();
+        final long validSize = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(6).putInt(100).putShort((short) 7).flip());
+        }
+
+        // when
+        final List<JournalEntry> entries = new ArrayList<>();
+        final ProductJournal reopened = new ProductJournal(path, FsyncPolicy.ALWAYS, 0);
+        reopened.open();
+        final long count = reopened.replay(entries::add);
+        reopened.append(new JournalEntry.DeleteBrand("A"));
+        reopened.close();
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(entries).containsExactly(
+                new JournalEntry.AddProduct(new Product("A", Category.TOP, 1000L)),
+                new JournalEntry.AddProduct(new Product("B", Category.TOP, 2000L)));
+
+        final List<JournalEntry> replayed = new ArrayList<>();
+        final ProductJournal verified = new ProductJournal(path, FsyncPolicy.OS, 0);
+        verified.open();
+        verified.replay(replayed::add);
+        verified.close();
+        assertThat(replayed).hasSize(3).last().isEqualTo(new JournalEntry.DeleteBrand("A"));
+        assertThat(Files.size(path)).isGreaterThan(validSize);
+    }
+
+    @Test
+    @DisplayName("group commit의 fsync가 실패하면 기다리던 쓰기는 멈추지 않고 JOURNAL_WRITE_ERROR로 끝나야 한다")
+    void groupCommitFailureTest() throws Exception {
+        // given
+        final Path path = JOURNAL_PATH.resolveSibling("fsync-failure.journal");
+        final ProductJournal journal = new ProductJournal(path, FsyncPolicy.GROUP, 5) {
+            @Override
+            void force() throws IOException {
+                throw new IOException("disk failure");
+            }
+        };
+        journal.open();
+        final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+        // when
+        final Future<?> write = writer.submit(() -> {
+            journal.append(new JournalEntry.AddProduct(new Product("A", Category.TOP, 1000L)));
+            journal.awaitDurable();
+        });
+
+        // then
+        try {
+            assertThatThrownBy(() -> write.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(ProductException.class)
+                    .extracting(e -> ((ProductException) e).getErrorCode())
+                    .isEqualTo(ErrorCode.JOURNAL_WRITE_ERROR);
+        } finally {
+            writer.shutdownNow();
+            assertThatThrownBy(journal::close).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("종료할 때 group commit을 기다리던 쓰기는 마지막 fsync 뒤에 깨어나야 한다")
+    void closeReleasesWaitersTest() throws Exception {
+        // given
+        final Path path = JOURNAL_PATH.resolveSibling("close.journal");
+        final ProductJournal journal = new ProductJournal(path, FsyncPolicy.GROUP, 60_000);
+        journal.open();
+        final ExecutorService writer = Executors.newSingleThreadExecutor();
+        final AtomicReference<Thread> waiter = new AtomicReference<>();
+        final Future<?> write = writer.submit(() -> {
+            waiter.set(Thread.currentThread());
+            journal.append(new JournalEntry.AddProduct(new Product("A", Category.TOP, 1000L)));
+            journal.awaitDurable();
+        });
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiter.get() == null || waiter.get().getState() != Thread.State.WAITING) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+
+        // when
+        journal.close();
+
+        // then
+        try {
+            write.get(5, TimeUnit.SECONDS);
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+}
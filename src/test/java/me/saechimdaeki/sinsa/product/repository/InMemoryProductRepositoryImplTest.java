@@ -1,16 +1,28 @@
 package me.saechimdaeki.sinsa.product.repository;
 
+import me.saechimdaeki.sinsa.product.domain.BatchOperation;
 import me.saechimdaeki.sinsa.product.domain.Brand;
 import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.LowestPriceChanges;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.PriceRangePage;
 import me.saechimdaeki.sinsa.product.domain.Product;
 import me.saechimdaeki.sinsa.product.exception.ErrorCode;
 import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.journal.CatalogImageFile;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -237,4 +249,305 @@ class InMemoryProductRepositoryImplTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("상품 추가, 수정, 삭제시 카테고리별 최저가, 최고가 정보가 함께 갱신되어야 한다")
+    void categoryPriceRangeTest() {
+        // given
+        final Category category = Category.HAT;
+        repository.addProduct(new Product("A", category, 1500L));
+        repository.addProduct(new Product("B", category, 1500L));
+        repository.addProduct(new Product("C", category, 2000L));
+
+        // when
+        repository.updateProduct("C", new Product("C", category, 1000L));
+        repository.deleteProduct("A", category);
+
+        // then
+        final CategoryPriceRange priceRange = repository.getCategoryPriceRange(category);
+        assertThat(priceRange.getLowestProducts()).containsExactly(new Product("C", category, 1000L));
+        assertThat(priceRange.getHighestProducts()).containsExactly(new Product("B", category, 1500L));
+
+        repository.deleteBrand("C");
+        assertThat(repository.getLowestPricedProducts()).containsExactly(new Product("B", category, 1500L));
+    }
+
+    @Test
+    @DisplayName("카테고리 순위 조회는 상품 변경을 반영하여 가격 순서대로 limit개까지 반환해야 한다")
+    void rankedProductsTest() {
+        // given
+        final Category category = Category.SNEAKERS;
+        repository.addProduct(new Product("A", category, 3000L));
+        repository.addProduct(new Product("B", category, 1000L));
+        repository.addProduct(new Product("C", category, 2000L));
+        repository.addProduct(new Product("D", category, 4000L));
+        repository.addProduct(new Product("E", Category.HAT, 10L));
+
+        // when
+        repository.updateProduct("D", new Product("D", category, 500L));
+        repository.deleteProduct("C", category);
+
+        // then
+        assertThat(repository.getRankedProducts(category, PriceOrder.LOWEST, 2)).containsExactly(
+                new Product("D", category, 500L),
+                new Product("B", category, 1000L));
+        assertThat(repository.getRankedProducts(category, PriceOrder.HIGHEST, 10)).containsExactly(
+                new Product("A", category, 3000L),
+                new Product("B", category, 1000L),
+                new Product("D", category, 500L));
+        assertThat(repository.getRankedProducts(Category.BAG, PriceOrder.LOWEST, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("가격 구간 조회는 구간 안의 상품을 가격 순서대로 페이지 단위로 반환하고 전체 개수를 함께 세야 한다")
+    void priceRangeTest() {
+        // given
+        final Category category = Category.HAT;
+        repository.addProduct(new Product("A", category, 1400L));
+        repository.addProduct(new Product("B", category, 1500L));
+        repository.addProduct(new Product("C", category, 1700L));
+        repository.addProduct(new Product("D", category, 1700L));
+        repository.addProduct(new Product("E", category, 2000L));
+        repository.addProduct(new Product("F", category, 2100L));
+        repository.updateProduct("F", new Product("F", category, 1800L));
+
+        // when
+        final PriceRangePage firstPage = repository.getProductsInPriceRange(category, 1500L, 2000L, 0, 2);
+        final PriceRangePage secondPage = repository.getProductsInPriceRange(category, 1500L, 2000L, 2, 2);
+        final PriceRangePage lastPage = repository.getProductsInPriceRange(category, 1500L, 2000L, 4, 2);
+
+        // then
+        assertThat(firstPage.getTotalCount()).isEqualTo(5);
+        assertThat(firstPage.getProducts()).extracting(Product::getPrice).containsExactly(1500L, 1700L);
+        assertThat(secondPage.getProducts()).extracting(Product::getPrice).containsExactly(1700L, 1800L);
+        assertThat(lastPage.getProducts()).containsExactly(new Product("E", category, 2000L));
+        assertThat(repository.getProductsInPriceRange(category, 1500L, 2000L, 6, 2).getProducts()).isEmpty();
+        assertThat(repository.countProductsInPriceRange(category, 1500L, 2000L)).isEqualTo(5);
+        assertThat(repository.countProductsInPriceRange(category, 1701L, 1799L)).isZero();
+        assertThat(repository.countProductsInPriceRange(Category.BAG, 0L, Long.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    @DisplayName("버전 이후의 변경 조회는 최저가가 바뀐 카테고리와 상품이 없어진 카테고리만 반환해야 한다")
+    void lowestPriceChangesTest() {
+        // given
+        repository.addProduct(new Product("A", Category.HAT, 1000L));
+        repository.addProduct(new Product("B", Category.HAT, 2000L));
+        repository.addProduct(new Product("A", Category.TOP, 500L));
+        final LowestPriceChanges initial = repository.getLowestPriceChanges(0L);
+        assertThat(initial.getChangedProducts()).containsExactly(
+                new Product("A", Category.TOP, 500L),
+                new Product("A", Category.HAT, 1000L));
+        assertThat(initial.getLowestTotalPrice()).isEqualTo(1500L);
+
+        // when
+        repository.updateProduct("B", new Product("B", Category.HAT, 1500L));
+        final LowestPriceChanges unchanged = repository.getLowestPriceChanges(initial.getVersion());
+
+        repository.updateProduct("B", new Product("B", Category.HAT, 900L));
+        repository.deleteProduct("A", Category.TOP);
+        final LowestPriceChanges changed = repository.getLowestPriceChanges(unchanged.getVersion());
+
+        // then
+        assertThat(unchanged.isCategoryChanged()).isFalse();
+        assertThat(unchanged.getVersion()).isGreaterThan(initial.getVersion());
+        assertThat(changed.getChangedProducts()).containsExactly(new Product("B", Category.HAT, 900L));
+        assertThat(changed.getEmptiedCategories()).containsExactly(Category.TOP);
+        assertThat(changed.getLowestTotalPrice()).isEqualTo(900L);
+        assertThat(repository.getLowestPriceChanges(changed.getVersion()).isCategoryChanged()).isFalse();
+        // 다른 epoch의 버전 등 음수 버전을 받으면 전체를 반환한다.
+        assertThat(repository.getLowestPriceChanges(-1L).getChangedProducts())
+                .containsExactly(new Product("B", Category.HAT, 900L));
+    }
+
+    @Test
+    @DisplayName("모든 카테고리 상품을 가진 브랜드 중 총액이 가장 낮은 브랜드가 상품 변경에 맞춰 갱신되어야 한다")
+    void brandWithLowestTotalPriceTest() {
+        // given
+        for (Category category : Category.values()) {
+            repository.addProduct(new Product("A", category, 1000L));
+            repository.addProduct(new Product("B", category, 2000L));
+        }
+        assertThat(repository.getBrandWithLowestTotalPrice()).map(Brand::getBrandName).hasValue("A");
+
+        // when
+        repository.updateProduct("A", new Product("A", Category.TOP, 20000L));
+
+        // then
+        assertThat(repository.getBrandWithLowestTotalPrice()).map(Brand::getBrandName).hasValue("B");
+
+        repository.deleteProduct("B", Category.BAG);
+        assertThat(repository.getBrandWithLowestTotalPrice()).map(Brand::getBrandName).hasValue("A");
+
+        repository.deleteBrand("A");
+        assertThat(repository.getBrandWithLowestTotalPrice()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("쓰기가 반영되면 전체 버전과 변경된 카테고리의 버전만 증가해야 한다")
+    void versionTest() {
+        // given
+        repository.addProduct(new Product("A", Category.BAG, 1000L));
+        final long version = repository.getVersion();
+        final long bagVersion = repository.getCategoryVersion(Category.BAG);
+        final long socksVersion = repository.getCategoryVersion(Category.SOCKS);
+
+        // when
+        repository.updateProduct("A", new Product("A", Category.BAG, 2000L));
+
+        // then
+        assertThat(repository.getVersion()).isGreaterThan(version);
+        assertThat(repository.getCategoryVersion(Category.BAG)).isGreaterThan(bagVersion);
+        assertThat(repository.getCategoryVersion(Category.SOCKS)).isEqualTo(socksVersion);
+
+        assertThatThrownBy(() -> repository.updateProduct("A", new Product("A", Category.SOCKS, 2000L)))
+                .isInstanceOf(ProductException.class);
+        assertThat(repository.getCategoryVersion(Category.SOCKS)).isEqualTo(socksVersion);
+
+        final long beforeDelete = repository.getCategoryVersion(Category.BAG);
+        repository.deleteBrand("A");
+        assertThat(repository.getCategoryVersion(Category.BAG)).isGreaterThan(beforeDelete);
+        assertThat(repository.getCategoryVersion(Category.SOCKS)).isEqualTo(socksVersion);
+    }
+
+    @Test
+    @DisplayName("배치 연산은 순서대로 적용되어야 하고, 하나라도 실패하면 아무것도 반영되지 않아야 한다")
+    void applyBatchTest() {
+        // given
+        repository.addProduct(new Product("A", Category.BAG, 1000L));
+        repository.addProduct(new Product("A", Category.HAT, 1000L));
+        final long version = repository.getVersion();
+
+        // when
+        repository.applyBatch(List.of(
+                new BatchOperation(BatchOperation.Type.UPDATE, "A", Category.BAG, 500L),
+                new BatchOperation(BatchOperation.Type.DELETE, "A", Category.HAT, null),
+                new BatchOperation(BatchOperation.Type.ADD, "B", Category.SOCKS, 300L),
+                new BatchOperation(BatchOperation.Type.UPDATE, "B", Category.SOCKS, 200L)
+        ));
+
+        // then
+        assertThat(repository.getBrand("A").getProducts()).containsExactly(new Product("A", Category.BAG, 500L));
+        assertThat(repository.getBrand("B").getProducts()).containsExactly(new Product("B", Category.SOCKS, 200L));
+        assertThat(repository.getCategoryPriceRange(Category.HAT).isEmpty()).isTrue();
+        assertThat(repository.getVersion()).isGreaterThan(version);
+
+        final long beforeFailure = repository.getVersion();
+        assertThatThrownBy(() -> repository.applyBatch(List.of(
+                new BatchOperation(BatchOperation.Type.UPDATE, "A", Category.BAG, 100L),
+                new BatchOperation(BatchOperation.Type.DELETE, "A", Category.BAG, null),
+                new BatchOperation(BatchOperation.Type.DELETE, "A", Category.BAG, null)
+        )))
+                .isInstanceOf(ProductException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.PRODUCT_NOT_FOUND);
+        assertThat(repository.getBrand("A").getProducts()).containsExactly(new Product("A", Category.BAG, 500L));
+        assertThat(repository.getVersion()).isEqualTo(beforeFailure);
+    }
+
+    @Test
+    @DisplayName("바이너리 스냅샷으로 쓰고 읽은 카탈로그 이미지를 가져오면 같은 카탈로그가 되어야 한다")
+    void catalogImageTest(@TempDir Path tempDir) throws IOException {
+        // given
+        repository.addBrand(new Brand("A", List.of(new Product("A", Category.TOP, 1000L), new Product("A", Category.BAG, 2000L))));
+        repository.addProduct(new Product("브랜드B", Category.SOCKS, 300L));
+        repository.addBrand(new Brand("C", new ArrayList<>()));
+        final List<Brand> brands = repository.getAllBrands();
+        final Path path = tempDir.resolve("catalog.snapshot");
+
+        // when
+        CatalogImageFile.write(path, repository.exportImage(() -> 42L));
+        repository.clearAllData();
+        final CatalogImage image = CatalogImageFile.read(path);
+        repository.importImage(image);
+
+        // then
+        assertThat(image.getCheckpoint()).isEqualTo(42L);
+        assertThat(repository.getAllBrands()).containsExactlyInAnyOrderElementsOf(brands);
+        assertThat(repository.getCategoryPriceRange(Category.SOCKS).getLowestProducts())
+                .containsExactly(new Product("브랜드B", Category.SOCKS, 300L));
+    }
+
+    @Test
+    @DisplayName("삭제된 브랜드 자리에 새 브랜드가 추가되어도 이전 브랜드의 상품이 남아있지 않아야 한다")
+    void addBrandAfterDeleteBrandTest() {
+        // given
+        repository.addProduct(new Product("deleted", Category.TOP, 1000L));
+        repository.addProduct(new Product("deleted", Category.BAG, 2000L));
+        repository.deleteBrand("deleted");
+
+        // when
+        final Product product = new Product("newBrand", Category.HAT, 3000L);
+        repository.addProduct(product);
+
+        // then
+        assertThat(repository.getAllBrands()).containsExactly(new Brand("newBrand", List.of(product)));
+        assertThat(repository.getLowestPricedProducts()).containsExactly(product);
+    }
+
+    @Test
+    @DisplayName("같은 가격의 브랜드 일부가 삭제되고 그 자리에 새 브랜드가 추가되어도 동률 브랜드는 추가된 순서대로 조회되어야 한다")
+    void tiedBrandsAfterDeleteTest() {
+        // given
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            repository.addProduct(new Product("tie-" + i, Category.HAT, 1000L));
+            if (i % 3 != 0) {
+                expected.add("tie-" + i);
+            }
+        }
+        for (int i = 0; i < 100; i += 3) {
+            repository.deleteBrand("tie-" + i);
+        }
+
+        // when
+        repository.addProduct(new Product("tie-new", Category.HAT, 1000L));
+        expected.add("tie-new");
+
+        // then
+        assertThat(repository.getCategoryPriceRange(Category.HAT).getLowestProducts())
+                .extracting(Product::getBrandName)
+                .containsExactlyElementsOf(expected);
+        assertThat(repository.getLowestPricedProducts()).containsExactly(new Product("tie-1", Category.HAT, 1000L));
+        assertThat(repository.getProductsInPriceRange(Category.HAT, 1000L, 1000L, 60, 10).getProducts())
+                .extracting(Product::getBrandName)
+                .containsExactlyElementsOf(expected.subList(60, 67));
+        assertThat(repository.countProductsInPriceRange(Category.HAT, 0L, 2000L)).isEqualTo(expected.size());
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 서로 다른 브랜드에 동시에 상품을 추가해도 최저가 정보가 정확해야 한다")
+    void concurrentAddProductTest() throws Exception {
+        // given
+        final int threads = 8;
+        final int brandsPerThread = 100;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(executorService.submit(() -> {
+                for (int b = 0; b < brandsPerThread; b++) {
+                    final String brandName = "brand-" + thread + "-" + b;
+                    for (Category category : Category.values()) {
+                        repository.addProduct(new Product(brandName, category, 1000L + thread * brandsPerThread + b));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(repository.getAllBrands()).hasSize(threads * brandsPerThread);
+        assertThat(repository.getLowestPricedProducts())
+                .hasSize(Category.values().length)
+                .allSatisfy(product -> {
+                    assertThat(product.getBrandName()).isEqualTo("brand-0-0");
+                    assertThat(product.getPrice()).isEqualTo(1000L);
+                });
+        assertThat(repository.getBrandWithLowestTotalPrice()).map(Brand::getBrandName).hasValue("brand-0-0");
+    }
+
+}
@@ -0,0 +1,102 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// InMemoryProductRepositoryImplTest의 모든 케이스를 mmap 모드 저장소로도 실행한다.
+@ActiveProfiles({"test", "mmap"})
+class MappedProductRepositoryImplTest extends InMemoryProductRepositoryImplTest {
+
+    private static final Path MMAP_PATH = createTempDirectory();
+
+    @Autowired
+    private ProductRepository repository;
+
+    @DynamicPropertySource
+    static void mmapProperties(DynamicPropertyRegistry registry) {
+        registry.add("sinsa.mmap.path", MMAP_PATH::toString);
+    }
+
+    @AfterAll
+    static void deleteMmapDirectory() throws IOException {
+        FileSystemUtils.deleteRecursively(MMAP_PATH);
+    }
+
+    @Test
+    @DisplayName("mmap 모드 저장소를 다시 열면 가격과 인덱스가 그대로 복원되어야 한다")
+    void reopenTest(@TempDir Path tempDir) throws IOException {
+        // given
+        final String path = tempDir.resolve("mmap").toString();
+        final MappedProductRepositoryImpl written = new MappedProductRepositoryImpl(path);
+        written.addBrand(new Brand("A", List.of(new Product("A", Category.TOP, 1000L), new Product("A", Category.HAT, 200L))));
+        written.addProduct(new Product("B", Category.TOP, 500L));
+        written.addProduct(new Product("C", Category.TOP, 300L));
+        written.deleteBrand("C");
+        written.deleteProduct("A", Category.HAT);
+        written.addProduct(new Product("D", Category.TOP, 2000L));
+        written.close();
+
+        // when
+        final MappedProductRepositoryImpl reopened = new MappedProductRepositoryImpl(path);
+
+        // then
+        assertThat(repository).isInstanceOf(MappedProductRepositoryImpl.class);
+        assertThat(reopened.getVersion()).isPositive();
+        assertThat(reopened.getAllBrands()).containsExactlyInAnyOrder(
+                new Brand("A", List.of(new Product("A", Category.TOP, 1000L))),
+                new Brand("B", List.of(new Product("B", Category.TOP, 500L))),
+                new Brand("D", List.of(new Product("D", Category.TOP, 2000L))));
+        final CategoryPriceRange range = reopened.getCategoryPriceRange(Category.TOP);
+        assertThat(range.getLowestProducts()).containsExactly(new Product("B", Category.TOP, 500L));
+        assertThat(range.getHighestProducts()).containsExactly(new Product("D", Category.TOP, 2000L));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("비운 mmap 저장소를 다시 열어도 기존 저장소로 인식되어 초기 데이터로 다시 채워지지 않아야 한다")
+    void reopenEmptiedStoreTest(@TempDir Path tempDir) throws IOException {
+        // given
+        final String path = tempDir.resolve("mmap").toString();
+        final MappedProductRepositoryImpl written = new MappedProductRepositoryImpl(path);
+        final boolean openedFromStorage = written.isOpenedFromStorage();
+        written.addProduct(new Product("A", Category.TOP, 1000L));
+        written.clearAllData();
+        written.close();
+
+        // when
+        final MappedProductRepositoryImpl reopened = new MappedProductRepositoryImpl(path);
+
+        // then
+        assertThat(openedFromStorage).isFalse();
+        assertThat(reopened.isOpenedFromStorage()).isTrue();
+        assertThat(reopened.getVersion()).isZero();
+        assertThat(reopened.getAllBrands()).isEmpty();
+        reopened.close();
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("sinsa-mmap");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
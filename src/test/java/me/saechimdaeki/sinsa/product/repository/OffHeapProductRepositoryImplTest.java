@@ -0,0 +1,46 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// InMemoryProductRepositoryImplTest의 모든 케이스를 offheap 모드 저장소로도 실행한다.
+@ActiveProfiles({"test", "offheap"})
+class OffHeapProductRepositoryImplTest extends InMemoryProductRepositoryImplTest {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Test
+    @DisplayName("offheap 모드 저장소는 여러 페이지에 걸친 브랜드의 가격을 그대로 내보내야 한다")
+    void exportImageAcrossPagesTest() {
+        // given
+        final List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            products.add(new Product("brand-" + i, Category.values()[i % Category.values().length], 1000L + i));
+        }
+        repository.addProducts(products);
+
+        // when
+        final CatalogImage image = repository.exportImage(() -> 0L);
+
+        // then
+        assertThat(repository).isInstanceOf(OffHeapProductRepositoryImpl.class);
+        assertThat(image.getBrandCount()).isEqualTo(3000);
+        for (int brand = 0; brand < image.getBrandCount(); brand++) {
+            final int index = Integer.parseInt(image.getBrandNames()[brand].substring("brand-".length()));
+            final Category category = Category.values()[index % Category.values().length];
+            assertThat(image.hasProduct(brand, category)).isTrue();
+            assertThat(image.price(brand, category)).isEqualTo(1000L + index);
+        }
+        assertThat(repository.getLowestPricedProducts()).hasSize(Category.values().length);
+    }
+}
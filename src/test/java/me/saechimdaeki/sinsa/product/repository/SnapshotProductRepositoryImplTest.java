@@ -0,0 +1,74 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.*;
+
+// InMemoryProductRepositoryImplTest의 모든 케이스를 snapshot 모드 저장소로도 실행한다.
+@ActiveProfiles({"test", "snapshot"})
+class SnapshotProductRepositoryImplTest extends InMemoryProductRepositoryImplTest {
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Test
+    @DisplayName("snapshot 모드에서는 조회한 결과가 이후의 쓰기에 영향을 받지 않아야 한다")
+    void readSnapshotIsImmutableTest() {
+        // given
+        final Product product = new Product("testBrand", Category.TOP, 1000L);
+        repository.addProduct(product);
+        final List<Brand> before = repository.getAllBrands();
+
+        // when
+        repository.updateProduct("testBrand", new Product("testBrand", Category.TOP, 500L));
+        repository.addProduct(new Product("otherBrand", Category.TOP, 100L));
+
+        // then
+        assertThat(repository).isInstanceOf(SnapshotProductRepositoryImpl.class);
+        assertThat(before).containsExactly(new Brand("testBrand", List.of(product)));
+        assertThatThrownBy(() -> before.get(0).getProducts().add(product))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("병렬로 계산한 조회 결과는 동률 상품의 순서까지 순차 계산 결과와 같아야 한다")
+    void parallelScanMatchesSequentialTest() {
+        // given
+        final SplittableRandom random = new SplittableRandom(42L);
+        final List<Brand> brands = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            final List<Product> products = new ArrayList<>();
+            for (Category category : Category.values()) {
+                // 일부 카테고리를 비우고 가격 종류를 적게 두어 동률 상품과 일부 상품만 가진 브랜드를 만든다.
+                if (i % 3 != 0 || category != Category.BAG) {
+                    products.add(new Product("brand-" + i, category, 1000L * (1 + random.nextInt(4))));
+                }
+            }
+            brands.add(new Brand("brand-" + i, products));
+        }
+
+        // when
+        final CatalogScanner.Aggregate sequential = CatalogScanner.SEQUENTIAL.scan(brands);
+        final CatalogScanner.Aggregate parallel;
+        try (CatalogScanner scanner = CatalogScanner.parallel(4, 1)) {
+            parallel = scanner.scan(brands);
+        }
+
+        // then
+        for (Category category : Category.values()) {
+            assertThat(parallel.lowest(category)).containsExactlyElementsOf(sequential.lowest(category));
+            assertThat(parallel.highest(category)).containsExactlyElementsOf(sequential.highest(category));
+        }
+        assertThat(parallel.lowestBrand()).isSameAs(sequential.lowestBrand());
+    }
+}
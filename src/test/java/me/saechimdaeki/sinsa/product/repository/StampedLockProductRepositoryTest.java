@@ -0,0 +1,61 @@
+package me.saechimdaeki.sinsa.product.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import me.saechimdaeki.sinsa.common.lock.LockMetrics;
+import me.saechimdaeki.sinsa.common.lock.LockStrategy;
+import me.saechimdaeki.sinsa.common.lock.StampedLockStrategy;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.PriceOrder;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.*;
+
+// InMemoryProductRepositoryImplTest의 모든 케이스를 StampedLock 전략으로도 실행한다.
+@TestPropertySource(properties = "sinsa.lock.strategy=stamped")
+class StampedLockProductRepositoryTest extends InMemoryProductRepositoryImplTest {
+
+    @Autowired
+    private LockStrategy lockStrategy;
+
+    @Autowired
+    private ProductRepository repository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("sinsa.lock.strategy 설정이 stamped라면 StampedLock 전략이 사용되어야 한다")
+    void lockStrategyTest() {
+        assertThat(lockStrategy).isInstanceOf(StampedLockStrategy.class);
+    }
+
+    @Test
+    @DisplayName("낙관적 읽기는 optimistic = true로 지정한 읽기에만 사용되고, 인덱스를 순회하는 읽기는 읽기 락을 잡아야 한다")
+    void optimisticReadOnlyWhenOptedInTest() {
+        // given
+        repository.addProduct(new Product("testBrand", Category.BAG, 1000L));
+        final long optimisticBefore = holdCount("InMemoryProductRepositoryImpl.getBrand", "optimistic_read");
+        final long readBefore = holdCount("InMemoryProductRepositoryImpl.getRankedProducts", "read");
+
+        // when
+        repository.getBrand("testBrand");
+        repository.getRankedProducts(Category.BAG, PriceOrder.LOWEST, 10);
+
+        // then
+        assertThat(holdCount("InMemoryProductRepositoryImpl.getBrand", "optimistic_read")).isEqualTo(optimisticBefore + 1);
+        assertThat(holdCount("InMemoryProductRepositoryImpl.getRankedProducts", "read")).isEqualTo(readBefore + 1);
+        assertThat(meterRegistry.find(LockMetrics.HOLD)
+                .tags("method", "InMemoryProductRepositoryImpl.getRankedProducts", "mode", "optimistic_read")
+                .timer()).isNull();
+    }
+
+    private long holdCount(String method, String mode) {
+        final Timer timer = meterRegistry.find(LockMetrics.HOLD).tags("method", method, "mode", mode).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,98 @@
+package me.saechimdaeki.sinsa.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.dto.ImportError;
+import me.saechimdaeki.sinsa.product.dto.ImportResponse;
+import me.saechimdaeki.sinsa.product.exception.ErrorCode;
+import me.saechimdaeki.sinsa.product.exception.ProductException;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+
+class ProductImportServiceTest {
+
+    private final ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+
+    private final ProductImportService productImportService = new ProductImportService(productRepository,
+            new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), 2, 64);
+
+    @Test
+    @DisplayName("배치 반영이 실패하면 그 배치의 행을 사유와 함께 거절하고, 앞뒤 배치의 반영 결과는 그대로 반환해야 한다")
+    void failedBatchTest() throws IOException {
+        // given
+        BDDMockito.given(productRepository.addProducts(anyList()))
+                .willReturn(2)
+                .willThrow(new ProductException(ErrorCode.DATA_SAVE_ERROR))
+                .willReturn(1);
+        final String feed = """
+                A,top,1000
+                A,bag,2000
+                B,top,1000
+                B,bag,2000
+                C,top,1000
+                """;
+
+        // when
+        final ImportResponse importResponse = productImportService.importCsv(
+                new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        assertThat(importResponse.getApplied()).isEqualTo(3);
+        assertThat(importResponse.getRejected()).isEqualTo(2);
+        assertThat(importResponse.getBatches()).isEqualTo(2);
+        assertThat(importResponse.getErrors())
+                .extracting(ImportError::getLine, ImportError::getReason)
+                .containsExactly(
+                        tuple(3L, "batch not applied: " + ErrorCode.DATA_SAVE_ERROR.getMessage()),
+                        tuple(4L, "batch not applied: " + ErrorCode.DATA_SAVE_ERROR.getMessage()));
+        Mockito.verify(productRepository, Mockito.times(3)).addProducts(anyList());
+    }
+
+    @Test
+    @DisplayName("CSV는 큰따옴표로 감싼 필드의 쉼표와 큰따옴표를 읽고, 최대 길이를 넘는 행은 버퍼링하지 않고 거절해야 한다")
+    void quotedCsvAndLongLineTest() throws IOException {
+        // given
+        final List<List<Product>> applied = new ArrayList<>();
+        BDDMockito.given(productRepository.addProducts(anyList())).willAnswer(invocation -> {
+            final List<Product> batch = invocation.getArgument(0);
+            applied.add(List.copyOf(batch));
+            return batch.size();
+        });
+        final String feed = "\"Brand, Inc\",TOP,1000\r\n"
+                + "\"Say \"\"Hi\"\"\" , bag , 2000\r\n"
+                + "A".repeat(100) + ",TOP,1000\r\n"
+                + "\"Unterminated,TOP,1000\n"
+                + "\"Brand\"x,TOP,1000\n"
+                + "Plain,socks,300";
+
+        // when
+        final ImportResponse importResponse = productImportService.importCsv(
+                new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        assertThat(applied).flatExtracting(batch -> batch).containsExactly(
+                new Product("Brand, Inc", Category.TOP, 1000L),
+                new Product("Say \"Hi\"", Category.BAG, 2000L),
+                new Product("Plain", Category.SOCKS, 300L));
+        assertThat(importResponse.getErrors())
+                .extracting(ImportError::getLine, ImportError::getReason)
+                .containsExactly(
+                        tuple(3L, "line exceeds 64 characters"),
+                        tuple(4L, "unterminated quoted field"),
+                        tuple(5L, "unexpected character after quoted field"));
+    }
+}
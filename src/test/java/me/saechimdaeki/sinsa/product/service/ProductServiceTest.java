@@ -1,7 +1,9 @@
 package me.saechimdaeki.sinsa.product.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import me.saechimdaeki.sinsa.product.domain.Brand;
 import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.CategoryPriceRange;
 import me.saechimdaeki.sinsa.product.domain.Product;
 import me.saechimdaeki.sinsa.product.dto.*;
 import me.saechimdaeki.sinsa.product.repository.ProductRepository;
@@ -12,7 +14,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.util.*;
 
@@ -23,6 +27,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private QueryResultCache queryResultCache = new QueryResultCache(new SimpleMeterRegistry(), true);
+
     @InjectMocks
     private ProductService productService;
 
@@ -35,8 +42,8 @@ class ProductServiceTest {
 
         // given
 
-        BDDMockito.given(productRepository.getAllBrands())
-                .willReturn(brandList);
+        BDDMockito.given(productRepository.getLowestPricedProducts())
+                .willReturn(lowestPricedProducts());
 
         // when
         final LowestCategoryResponse lowestCategoryResponse = productService.getLowestPricedProductsByCategory();
@@ -55,16 +62,17 @@ class ProductServiceTest {
     @DisplayName("- 단일 브랜드로 모든 카테고리 상품을 구매할 때 최저가격에 판매하는 브랜드와 카테고리의 상품가격, 총액을 조회할 수 있어야 한다")
     void getBrandWithLowestTotalPriceTest() {
         // given
-        BDDMockito.given(productRepository.getAllBrands())
-                .willReturn(brandList);
+        BDDMockito.given(productRepository.getBrandWithLowestTotalPrice())
+                .willReturn(Optional.of(brandList.get(3)));
         // when
         final LowestBrandResponse lowestBrandResponse = productService.getBrandWithLowestTotalPrice();
 
         // then
 
         assertThat(lowestBrandResponse).isNotNull();
-        assertThat(lowestBrandResponse.getTotalPrice()).isPositive();
-        assertThat(lowestBrandResponse.getCategories()).isNotEmpty();
+        assertThat(lowestBrandResponse.getBrand()).isEqualTo("D");
+        assertThat(lowestBrandResponse.getTotalPrice()).isEqualTo(36100L);
+        assertThat(lowestBrandResponse.getCategories()).hasSize(Category.values().length);
     }
 
     @Test
@@ -73,9 +81,10 @@ class ProductServiceTest {
         // given
 
         final String categoryName = "socks";
+        final Category category = Category.fromName(categoryName);
 
-        BDDMockito.given(productRepository.getAllBrands())
-                .willReturn(brandList);
+        BDDMockito.given(productRepository.getCategoryPriceRange(category))
+                .willReturn(categoryPriceRange(category));
 
         // when
 
@@ -88,6 +97,47 @@ class ProductServiceTest {
         assertThat(priceByCategoryResponse.getCategory()).isEqualTo(Category.fromName(categoryName).name());
     }
 
+    @Test
+    @DisplayName("저장소 버전이 바뀌지 않았다면 조회 결과를 다시 계산하지 않아야 한다")
+    void cachedQueryTest() {
+        // given
+        BDDMockito.given(productRepository.getVersion()).willReturn(1L, 1L, 2L);
+        BDDMockito.given(productRepository.getLowestPricedProducts())
+                .willReturn(lowestPricedProducts());
+
+        // when
+        final LowestCategoryResponse first = productService.getLowestPricedProductsByCategory();
+        final LowestCategoryResponse cached = productService.getLowestPricedProductsByCategory();
+        final LowestCategoryResponse reloaded = productService.getLowestPricedProductsByCategory();
+
+        // then
+        assertThat(cached).isSameAs(first);
+        assertThat(reloaded).isNotSameAs(first);
+        Mockito.verify(productRepository, Mockito.times(2)).getLowestPricedProducts();
+    }
+
+    @Test
+    @DisplayName("카테고리 가격 정보는 해당 카테고리 버전이 바뀐 경우에만 다시 계산해야 한다")
+    void cachedCategoryPriceInfoTest() {
+        // given
+        BDDMockito.given(productRepository.getCategoryVersion(Category.BAG)).willReturn(1L, 2L);
+        BDDMockito.given(productRepository.getCategoryVersion(Category.SOCKS)).willReturn(1L);
+        BDDMockito.given(productRepository.getCategoryPriceRange(Category.BAG))
+                .willReturn(categoryPriceRange(Category.BAG));
+        BDDMockito.given(productRepository.getCategoryPriceRange(Category.SOCKS))
+                .willReturn(categoryPriceRange(Category.SOCKS));
+
+        // when
+        productService.getCategoryPriceInfo("bag");
+        productService.getCategoryPriceInfo("socks");
+        productService.getCategoryPriceInfo("bag");
+        productService.getCategoryPriceInfo("socks");
+
+        // then
+        Mockito.verify(productRepository, Mockito.times(2)).getCategoryPriceRange(Category.BAG);
+        Mockito.verify(productRepository, Mockito.times(1)).getCategoryPriceRange(Category.SOCKS);
+    }
+
     @Test
     @DisplayName("상품 생성요청시 문제가 없다면 정상적인 값을 반환해야한다")
     void createProductTest() {
@@ -150,6 +200,34 @@ class ProductServiceTest {
         assertThat(productResponse.getPrice()).isEqualTo(productRequest.getPrice());
     }
 
+    private List<Product> lowestPricedProducts() {
+        final List<Product> lowestProducts = new ArrayList<>();
+        for (Category category : Category.values()) {
+            categoryProducts(category).stream()
+                    .min(Comparator.comparing(Product::getPrice))
+                    .ifPresent(lowestProducts::add);
+        }
+        return lowestProducts;
+    }
+
+    private CategoryPriceRange categoryPriceRange(Category category) {
+        final List<Product> products = categoryProducts(category);
+        final long minPrice = products.stream().mapToLong(Product::getPrice).min().orElseThrow();
+        final long maxPrice = products.stream().mapToLong(Product::getPrice).max().orElseThrow();
+        return new CategoryPriceRange(
+                category,
+                products.stream().filter(p -> p.getPrice() == minPrice).toList(),
+                products.stream().filter(p -> p.getPrice() == maxPrice).toList()
+        );
+    }
+
+    private List<Product> categoryProducts(Category category) {
+        return brandList.stream()
+                .flatMap(brand -> brand.getProducts().stream())
+                .filter(p -> p.getCategory() == category)
+                .toList();
+    }
+
     @BeforeEach
     void initData() {
         MockitoAnnotations.openMocks(this);
@@ -0,0 +1,213 @@
+package me.saechimdaeki.sinsa.product.stream;
+
+import me.saechimdaeki.sinsa.product.domain.Brand;
+import me.saechimdaeki.sinsa.product.domain.Category;
+import me.saechimdaeki.sinsa.product.domain.Product;
+import me.saechimdaeki.sinsa.product.dto.LowestPriceChangeResponse;
+import me.saechimdaeki.sinsa.product.repository.InitialCatalog;
+import me.saechimdaeki.sinsa.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.reactivestreams.Subscription;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class LowestPriceStreamTest {
+
+    @Autowired
+    private LowestPriceStream lowestPriceStream;
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @BeforeEach
+    void initData() {
+        for (Brand brand : InitialCatalog.brands()) {
+            repository.addBrand(brand);
+        }
+    }
+
+    @AfterEach
+    void clearData() {
+        emitters.forEach(SseEmitter::complete);
+        emitters.forEach(emitter -> emitter.release.countDown());
+        repository.clearAllData();
+    }
+
+    @Test
+    @DisplayName("구독하면 현재 최저가 전체를 받고, 이후에는 최저가가 바뀐 카테고리와 최저 총액 브랜드만 받아야 한다")
+    void streamChangesTest() throws Exception {
+        // given
+        final RecordingEmitter emitter = subscribe(false);
+        assertThat(emitter.take(Category.values().length + 1))
+                .contains(new LowestPriceChangeResponse("HAT", "D", 1500L),
+                        new LowestPriceChangeResponse(null, "D", 36100L));
+
+        // when
+        // 최저가가 아닌 상품의 변경은 이벤트를 만들지 않는다.
+        repository.updateProduct("B", new Product("B", Category.OUTER, 6000L));
+        repository.updateProduct("B", new Product("B", Category.HAT, 100L));
+        repository.updateProduct("B", new Product("B", Category.TOP, 100L));
+
+        // then
+        // 두 갱신 사이에 전송되면 중간 총액 이벤트가 하나 더 올 수 있으므로 마지막 총액만 확인한다.
+        final List<LowestPriceChangeResponse> received = new ArrayList<>(emitter.take(3));
+        LowestPriceChangeResponse event;
+        while ((event = emitter.events.poll(200, TimeUnit.MILLISECONDS)) != null) {
+            received.add(event);
+        }
+        assertThat(received.stream().filter(change -> change.getCategory() != null))
+                .containsExactlyInAnyOrder(
+                        new LowestPriceChangeResponse("HAT", "B", 100L),
+                        new LowestPriceChangeResponse("TOP", "B", 100L));
+        assertThat(received.stream().filter(change -> change.getCategory() == null))
+                .last()
+                .isEqualTo(new LowestPriceChangeResponse(null, "B", 25400L));
+    }
+
+    @Test
+    @DisplayName("전송이 밀린 구독자의 변경은 카테고리별 최신 값 하나로 합쳐지고, 쓰기는 막히지 않아야 한다")
+    void slowSubscriberCoalescingTest() throws Exception {
+        // given
+        final RecordingEmitter emitter = subscribe(true);
+        assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        for (long price = 1000L; price > 900L; price--) {
+            repository.updateProduct("A", new Product("A", Category.SOCKS, price));
+        }
+        emitter.release.countDown();
+
+        // then
+        final List<LowestPriceChangeResponse> received = new ArrayList<>();
+        LowestPriceChangeResponse event;
+        while ((event = emitter.events.poll(500, TimeUnit.MILLISECONDS)) != null) {
+            received.add(event);
+        }
+        assertThat(received.stream().filter(change -> "SOCKS".equals(change.getCategory())))
+                .last()
+                .isEqualTo(new LowestPriceChangeResponse("SOCKS", "A", 901L));
+        assertThat(received.size()).isLessThan(100);
+    }
+
+    @Test
+    @DisplayName("전송이 멈춘 구독자가 여럿이어도 다른 구독자는 이벤트를 계속 받아야 한다")
+    void stalledSubscribersDoNotBlockOthersTest() throws Exception {
+        // given
+        final List<RecordingEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final RecordingEmitter emitter = subscribe(true);
+            assertThat(emitter.sending.await(5, TimeUnit.SECONDS)).isTrue();
+            stalled.add(emitter);
+        }
+
+        // when
+        final RecordingEmitter emitter = subscribe(false);
+        emitter.take(Category.values().length + 1);
+        repository.updateProduct("B", new Product("B", Category.HAT, 100L));
+
+        // then
+        assertThat(emitter.take(1)).containsExactly(new LowestPriceChangeResponse("HAT", "B", 100L));
+        assertThat(stalled).allSatisfy(blocked -> assertThat(blocked.events).isEmpty());
+    }
+
+    @Test
+    @DisplayName("WebFlux 구독은 다운스트림이 요청한 수만큼만 보내고, 요청이 없는 동안의 변경은 구독자 버퍼에서 합쳐져야 한다")
+    void fluxBackpressureTest() throws Exception {
+        // given
+        final BlockingQueue<LowestPriceChangeResponse> events = new LinkedBlockingQueue<>();
+        final BaseSubscriber<ServerSentEvent<LowestPriceChangeResponse>> subscriber = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ServerSentEvent<LowestPriceChangeResponse> event) {
+                events.add(event.data());
+            }
+        };
+        lowestPriceStream.events().subscribe(subscriber);
+        assertThat(events.poll(5, TimeUnit.SECONDS)).isNotNull();
+
+        // when
+        for (long price = 1000L; price > 900L; price--) {
+            repository.updateProduct("A", new Product("A", Category.SOCKS, price));
+        }
+        assertThat(events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        subscriber.request(Long.MAX_VALUE);
+
+        // then
+        final List<LowestPriceChangeResponse> received = new ArrayList<>();
+        LowestPriceChangeResponse event;
+        while ((event = events.poll(500, TimeUnit.MILLISECONDS)) != null) {
+            received.add(event);
+        }
+        subscriber.dispose();
+        assertThat(received).hasSizeLessThanOrEqualTo(Category.values().length + 1);
+        assertThat(received.stream().filter(change -> "SOCKS".equals(change.getCategory())))
+                .containsExactly(new LowestPriceChangeResponse("SOCKS", "A", 901L));
+    }
+
+    private RecordingEmitter subscribe(boolean blockFirstSend) {
+        final RecordingEmitter emitter = new RecordingEmitter(blockFirstSend);
+        emitters.add(emitter);
+        lowestPriceStream.subscribe(emitter);
+        return emitter;
+    }
+
+    // 전송된 이벤트 본문을 기록하며, 필요하면 첫 전송을 release까지 붙잡아 느린 구독자를 흉내낸다.
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<LowestPriceChangeResponse> events = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingEmitter(boolean blockFirstSend) {
+            this.release = new CountDownLatch(blockFirstSend ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof LowestPriceChangeResponse change) {
+                    events.add(change);
+                }
+            }
+        }
+
+        private List<LowestPriceChangeResponse> take(int count) throws InterruptedException {
+            final List<LowestPriceChangeResponse> taken = new ArrayList<>();
+            while (taken.size() < count) {
+                final LowestPriceChangeResponse event = events.poll(5, TimeUnit.SECONDS);
+                assertThat(event).as("event %d of %d", taken.size() + 1, count).isNotNull();
+                taken.add(event);
+            }
+            return taken;
+        }
+    }
+}